@@ -15,6 +15,9 @@ public class AndroidLauncher extends AndroidApplication {
 		config.useCompass = false;
 		config.useGyroscope = false;
 
-		initialize(new GameInstance(), config);
+		GameOptions options = new GameOptions();
+		options.setGcCounter(new ArtGcCounter());
+		options.setRecordingSessions(BuildConfig.DEBUG);
+		initialize(new GameInstance(options), config);
 	}
 }
@@ -0,0 +1,53 @@
+package uk.ac.ncl.cartoonboxing;
+
+import android.os.Build;
+import android.os.Debug;
+import android.os.SystemClock;
+
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfiler;
+
+/**
+ * Garbage collection count of the Android runtime, available from API level 23.
+ * The runtime reports the count as a new String, so it is only sampled once a second and cached in between,
+ * and parsed without allocating; a collection shows up in the frame the count is next sampled in.
+ * @author Piotr Grela
+ */
+public class ArtGcCounter implements FrameProfiler.GcCounter {
+
+	private static final String GC_COUNT_STAT = "art.gc.gc-count";
+	private static final long SAMPLE_INTERVAL = 1000000000L;
+
+	private long count = -1;
+	private long lastSampleTime = Long.MIN_VALUE;
+
+	@Override
+	public long getCollectionCount() {
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+			return -1;
+		}
+		long now = SystemClock.elapsedRealtimeNanos();
+		if (now - lastSampleTime >= SAMPLE_INTERVAL) {
+			lastSampleTime = now;
+			count = parseCount(Debug.getRuntimeStat(GC_COUNT_STAT));
+		}
+		return count;
+	}
+
+	/**
+	 * @return the non-negative decimal number in the string, or -1 if there is none
+	 */
+	private static long parseCount(String value) {
+		if (value == null || value.isEmpty()) {
+			return -1;
+		}
+		long result = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			result = result * 10 + (c - '0');
+		}
+		return result;
+	}
+}
@@ -0,0 +1,136 @@
+package uk.ac.ncl.cartoonboxing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import uk.ac.ncl.cartoonboxing.ecs.BoundsSystem;
+import uk.ac.ncl.cartoonboxing.ecs.CollisionSystem;
+import uk.ac.ncl.cartoonboxing.ecs.MovementSystem;
+
+/**
+ * Per-frame hot paths of the simulation, i.e. updates of its systems, measured for a range of simultaneous bot counts.
+ * Bots are spawned at the level edges, away from the player, so that hit checks walk the whole collection
+ * without changing it; removal benchmarks populate a new simulation for every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameSimulationBenchmark {
+
+    static final int LEVEL_WIDTH = 1080;
+    static final int LEVEL_HEIGHT = 1920;
+    static final float FRAME_DELTA = 1f / 60;
+
+    @Param({"5", "100", "1000", "10000"})
+    int botCount;
+
+    GameSimulation simulation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameDimensions.update(LEVEL_WIDTH, LEVEL_HEIGHT);
+        simulation = populatedSimulation(botCount);
+    }
+
+    static GameSimulation populatedSimulation(int botCount) {
+        GameSimulation simulation = new GameSimulation();
+        for (int i = 0; i < botCount; i++) {
+            simulation.spawnNewBot();
+        }
+        return simulation;
+    }
+
+    @Benchmark
+    public void checkForHit() {
+        simulation.getEngine().getSystem(CollisionSystem.class).update(FRAME_DELTA);
+    }
+
+    @Benchmark
+    public void moveCharacters() {
+        simulation.getEngine().getSystem(MovementSystem.class).update(FRAME_DELTA);
+    }
+
+    /**
+     * Removal when every bot is still within the level. A removal pass can change the simulation,
+     * so every invocation gets a freshly populated one rather than the trial's.
+     */
+    @State(Scope.Thread)
+    public static class InBoundsState {
+        @Param({"5", "100", "1000", "10000"})
+        int botCount;
+
+        GameSimulation simulation;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            GameDimensions.update(LEVEL_WIDTH, LEVEL_HEIGHT);
+            simulation = populatedSimulation(botCount);
+        }
+    }
+
+    @Benchmark
+    public int removeCharactersIfAppropriate(InBoundsState state) {
+        state.simulation.getEngine().getSystem(BoundsSystem.class).update(FRAME_DELTA);
+        return state.simulation.getBots().getSize();
+    }
+
+    /**
+     * Removal when every bot has left the level, i.e. the worst case of the removal pass
+     */
+    @State(Scope.Thread)
+    public static class OutOfBoundsState {
+        @Param({"5", "100", "1000", "10000"})
+        int botCount;
+
+        GameSimulation simulation;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            GameDimensions.update(LEVEL_WIDTH, LEVEL_HEIGHT);
+            simulation = populatedSimulation(botCount);
+            // one long step carries every bot well past the opposite edge
+            simulation.getEngine().getSystem(MovementSystem.class).update(10f);
+        }
+    }
+
+    @Benchmark
+    public int removeOutOfBoundsCharacters(OutOfBoundsState state) {
+        state.simulation.getEngine().getSystem(BoundsSystem.class).update(FRAME_DELTA);
+        return state.simulation.getBots().getSize();
+    }
+
+    /**
+     * Removal when every other bot has been marked dead, e.g. by hits, scattering holes across the store
+     */
+    @State(Scope.Thread)
+    public static class DeadBotsState {
+        @Param({"5", "100", "1000", "10000"})
+        int botCount;
+
+        GameSimulation simulation;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            GameDimensions.update(LEVEL_WIDTH, LEVEL_HEIGHT);
+            simulation = populatedSimulation(botCount);
+            for (int slot = 0; slot < botCount; slot += 2) {
+                simulation.getBots().markDead(slot);
+            }
+        }
+    }
+
+    @Benchmark
+    public int removeDeadCharacters(DeadBotsState state) {
+        state.simulation.getEngine().getSystem(BoundsSystem.class).update(FRAME_DELTA);
+        return state.simulation.getBots().getSize();
+    }
+}
@@ -0,0 +1,91 @@
+package uk.ac.ncl.cartoonboxing.character;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import uk.ac.ncl.cartoonboxing.GameDimensions;
+
+/**
+ * Per-character operations, applied to every bot of a population of the given size, as it happens in a single frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CharacterBenchmark {
+
+    private static final int GLOBAL_MOVING_SPEED_PX = 1000;
+    private static final float FRAME_DELTA = 1f / 60;
+
+    @Param({"5", "100", "1000", "10000"})
+    int botCount;
+
+    HostileCharacter[] bots;
+    PlayerCharacter player;
+    CharacterStore store;
+    int overlappingPairs;
+    final SweepBroadphase.OverlapListener pairCounter = new SweepBroadphase.OverlapListener() {
+        @Override
+        public void onOverlap(int slotA, int slotB) {
+            overlappingPairs++;
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameDimensions.update(1080, 1920);
+        player = new PlayerCharacter();
+        bots = new HostileCharacter[botCount];
+        for (int i = 0; i < botCount; i++) {
+            bots[i] = HostileCharacter.generateRandomCharacter(i % 100);
+        }
+        // spread stored bots over the level, as they would be after a while of play
+        store = new CharacterStore(botCount);
+        float spacing = (float) GameDimensions.getLevelWidth() / botCount;
+        for (int i = 0; i < botCount; i++) {
+            store.add(BaseCharacter.CharacterType.byID(i % 6));
+            store.x[i] = i * spacing;
+        }
+        store.getBroadphase().sort();
+    }
+
+    @Benchmark
+    public void updateX() {
+        for (HostileCharacter bot : bots) {
+            bot.updateX(GLOBAL_MOVING_SPEED_PX, FRAME_DELTA);
+        }
+    }
+
+    @Benchmark
+    public void inFrontOf(Blackhole blackhole) {
+        for (HostileCharacter bot : bots) {
+            blackhole.consume(bot.inFrontOf(player));
+        }
+    }
+
+    /**
+     * One type roll per bot, across the whole range of difficulties
+     */
+    @Benchmark
+    public void randomType(Blackhole blackhole) {
+        for (int i = 0; i < botCount; i++) {
+            blackhole.consume(BaseCharacter.CharacterType.randomType((i % 100) / 100.0));
+        }
+    }
+
+    @Benchmark
+    public int findOverlappingPairs() {
+        overlappingPairs = 0;
+        store.getBroadphase().findOverlappingPairs(pairCounter);
+        return overlappingPairs;
+    }
+}
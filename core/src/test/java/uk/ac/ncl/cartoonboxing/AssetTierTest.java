@@ -0,0 +1,33 @@
+package uk.ac.ncl.cartoonboxing;
+
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssetTierTest {
+
+    @Test
+    public void testLargeScreenUsesFullTier() {
+        assertEquals(AssetTier.FULL, AssetTier.select(new LevelDimensions(1920, 1080)));
+        assertEquals(AssetTier.FULL, AssetTier.select(new LevelDimensions(2560, 1440)));
+    }
+
+    @Test
+    public void testSmallerScreensUseLowerTiers() {
+        // characters are drawn at 256px of 300px, background at 720px of 1200px
+        assertEquals(AssetTier.MEDIUM, AssetTier.select(new LevelDimensions(1280, 720)));
+        assertEquals(AssetTier.LOW, AssetTier.select(new LevelDimensions(800, 480)));
+        assertEquals(AssetTier.LOW, AssetTier.select(new LevelDimensions(320, 240)));
+    }
+
+    @Test
+    public void testUnknownScreenSizeUsesFullTier() {
+        assertEquals(AssetTier.FULL, AssetTier.select(new LevelDimensions(0, 0)));
+    }
+
+    @Test
+    public void testTierPaths() {
+        assertEquals("atlas/sprites.atlas", AssetTier.FULL.path("atlas/sprites.atlas"));
+        assertEquals("tiers/low/atlas/sprites.atlas", AssetTier.LOW.path("atlas/sprites.atlas"));
+    }
+}
@@ -0,0 +1,254 @@
+package uk.ac.ncl.cartoonboxing;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+import uk.ac.ncl.cartoonboxing.character.CharacterStore;
+import uk.ac.ncl.cartoonboxing.spawn.WaveScript;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the game screen through thousands of frames of play under the headless backend, with a GL that does
+ * nothing, and checks how much the render thread allocates per frame once play has reached a steady state.
+ * Allocations during gameplay end up as GC pauses, so the budget is zero by default;
+ * it can be changed with -DframeAllocationBudget=bytes.
+ * The game is seeded, so every run plays the same session. Warm-up plays until the score is past the last band
+ * of the wave script, so that every kind of wave, and the widest score text, has occurred before the
+ * measurement; the engine's pools are filled by the simulation up front.
+ * The measurement is split into windows, and every window has to stay within the budget, so that even an
+ * allocation made once in the whole measurement fails the test. The JVM itself can still allocate once at any
+ * time, e.g. when deoptimised code materialises objects that the JIT had eliminated, or when it recompiles a
+ * method; such one-offs have been under 1.5 KB, so each window is allowed a further {@link #JVM_ALLOWANCE_BYTES}
+ * on top of the budget.
+ * An allocation by the game smaller than that, made in few enough frames, therefore goes unnoticed.
+ * Needs the game's assets, so runs in the Android assets directory.
+ */
+public class FrameAllocationTest {
+
+    private static final long BUDGET_BYTES_PER_FRAME = Long.getLong("frameAllocationBudget", 0);
+    private static final long SEED = 42;
+    /**
+     * Score warm-up plays past, beyond the score of the last band of the wave script
+     */
+    private static final int WARM_UP_SCORE_MARGIN = 10;
+    private static final int MAX_WARM_UP_FRAMES = 60 * 60 * 5;
+    private static final int MEASURED_WINDOWS = 10;
+    private static final int WINDOW_FRAMES = 600;
+    /**
+     * Bytes a window may allocate beyond the budget, for the JVM's own one-off allocations when it deoptimises or
+     * recompiles code; the largest seen was 1320 bytes, on entry to {@code Mesh.render} when it was recompiled
+     * after the other tests had run in the same JVM
+     */
+    private static final long JVM_ALLOWANCE_BYTES = 2048;
+    private static final float FRAME_TIME = 1f / 60;
+    private static final int SCREEN_WIDTH = 1920;
+    private static final int SCREEN_HEIGHT = 1080;
+
+    private static HeadlessApplication application;
+    private static File localDirectory;
+    private TouchInput input;
+    private GameInstance gameInstance;
+    private Game game;
+
+    /**
+     * Input whose screen is touched whenever the test says so
+     */
+    private static class TouchInput extends MockInput {
+        boolean touched;
+
+        @Override
+        public boolean justTouched() {
+            return touched;
+        }
+    }
+
+    /**
+     * Headless files whose local storage is a temporary directory, so that the game does not write its history
+     * into the assets
+     */
+    private static class TemporaryLocalFiles implements Files {
+        private final HeadlessFiles files = new HeadlessFiles();
+
+        @Override
+        public FileHandle getFileHandle(String path, FileType type) {
+            return type == FileType.Local ? local(path) : files.getFileHandle(path, type);
+        }
+
+        @Override
+        public FileHandle classpath(String path) {
+            return files.classpath(path);
+        }
+
+        @Override
+        public FileHandle internal(String path) {
+            return files.internal(path);
+        }
+
+        @Override
+        public FileHandle external(String path) {
+            return files.external(path);
+        }
+
+        @Override
+        public FileHandle absolute(String path) {
+            return files.absolute(path);
+        }
+
+        @Override
+        public FileHandle local(String path) {
+            return new FileHandle(new File(localDirectory, path));
+        }
+
+        @Override
+        public String getExternalStoragePath() {
+            return files.getExternalStoragePath();
+        }
+
+        @Override
+        public boolean isExternalStorageAvailable() {
+            return files.isExternalStorageAvailable();
+        }
+
+        @Override
+        public String getLocalStoragePath() {
+            return localDirectory.getPath();
+        }
+
+        @Override
+        public boolean isLocalStorageAvailable() {
+            return true;
+        }
+    }
+
+    @BeforeClass
+    public static void startHeadless() throws Exception {
+        Assume.assumeTrue(new File(GameAssets.BOO_SOUND.fileName).exists());
+        localDirectory = java.nio.file.Files.createTempDirectory("frame-allocation").toFile();
+        application = new HeadlessApplication(new ApplicationAdapter() {
+        });
+    }
+
+    @AfterClass
+    public static void stopHeadless() {
+        if (application != null) {
+            application.exit();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Gdx.gl = Gdx.gl20 = new NoopGL20();
+        Gdx.files = new TemporaryLocalFiles();
+        Gdx.graphics = new MockGraphics() {
+            @Override
+            public int getWidth() {
+                return SCREEN_WIDTH;
+            }
+
+            @Override
+            public int getHeight() {
+                return SCREEN_HEIGHT;
+            }
+        };
+        input = new TouchInput();
+        Gdx.input = input;
+
+        GameOptions options = new GameOptions();
+        options.setSeed(SEED);
+        gameInstance = new GameInstance(options);
+        gameInstance.batch = new SpriteBatch();
+        gameInstance.assets = new GameAssets();
+        gameInstance.assets.finishLoading();
+        game = new Game(gameInstance);
+    }
+
+    @After
+    public void tearDown() {
+        game.dispose();
+        gameInstance.assets.dispose();
+    }
+
+    @Test
+    public void testSteadyStatePlayStaysWithinAllocationBudget() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        // the first touch starts the game
+        input.touched = true;
+        game.render(FRAME_TIME);
+        WaveScript script = game.getSimulation().getWaveScript();
+        int warmUpScore = script.getBand(script.getBandCount() - 1).getScore() + WARM_UP_SCORE_MARGIN;
+        int warmUpFrames = 0;
+        while (game.getSimulation().getCurrentScore() < warmUpScore && warmUpFrames < MAX_WARM_UP_FRAMES) {
+            playFrames(1);
+            warmUpFrames++;
+        }
+        assertTrue(game.getSimulation().getCurrentScore() >= warmUpScore, "warm-up did not reach score " + warmUpScore);
+        long roundDurationBefore = game.getSimulation().getRoundDuration();
+        long[] allocated = new long[MEASURED_WINDOWS];
+        for (int window = 0; window < MEASURED_WINDOWS; window++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            playFrames(WINDOW_FRAMES);
+            allocated[window] = threads.getThreadAllocatedBytes(thread) - before;
+        }
+
+        // every measured frame has to be gameplay of the same round, not the game over screen
+        long measuredTime = (long) (MEASURED_WINDOWS * WINDOW_FRAMES * FRAME_TIME * 1000000000L);
+        assertTrue(game.getSimulation().getRoundDuration() - roundDurationBefore >= measuredTime,
+            "game over during measurement");
+        long max = 0;
+        for (long bytes : allocated) {
+            max = Math.max(max, bytes);
+        }
+        assertTrue(max - JVM_ALLOWANCE_BYTES <= BUDGET_BYTES_PER_FRAME * WINDOW_FRAMES, "allocated " + max
+            + " bytes in " + WINDOW_FRAMES + " frames, budget " + BUDGET_BYTES_PER_FRAME + " per frame plus "
+            + JVM_ALLOWANCE_BYTES + " for the JVM; windows " + Arrays.toString(allocated));
+    }
+
+    /**
+     * Render frames, touching the screen whenever the player has to turn to face the nearest bot
+     */
+    private void playFrames(int frames) {
+        for (int i = 0; i < frames; i++) {
+            input.touched = shouldFlip(game.getSimulation());
+            game.render(FRAME_TIME);
+        }
+    }
+
+    private static boolean shouldFlip(GameSimulation simulation) {
+        CharacterStore bots = simulation.getBots();
+        float playerX = simulation.getPlayerX();
+        float nearestDistance = Float.MAX_VALUE;
+        BaseCharacter.Direction nearest = null;
+        for (int slot = 0; slot < bots.getSize(); slot++) {
+            float distance = Math.abs(bots.getX(slot) - playerX);
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = bots.getX(slot) < playerX ? BaseCharacter.Direction.LEFT : BaseCharacter.Direction.RIGHT;
+            }
+        }
+        return nearest != null && simulation.getPlayerDirection() != nearest;
+    }
+}
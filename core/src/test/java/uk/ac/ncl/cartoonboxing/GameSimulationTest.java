@@ -0,0 +1,179 @@
+package uk.ac.ncl.cartoonboxing;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+import uk.ac.ncl.cartoonboxing.character.HostileCharacter;
+import uk.ac.ncl.cartoonboxing.ecs.Mappers;
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfilerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSimulationTest {
+
+    private static final float TICK = 1f / 60;
+
+    @Before
+    public void setUp() {
+        GameDimensions.update(1080, 1920);
+    }
+
+    @Test
+    public void testSpawnsBotsOverSimulatedTime() {
+        GameSimulation simulation = new GameSimulation();
+        assertEquals(0, simulation.getBots().getSize());
+        for (int i = 0; i < 61; i++) {
+            simulation.step(TICK, false);
+        }
+        assertTrue(simulation.getBots().getSize() >= 1);
+    }
+
+    @Test
+    public void testReportsSpawnsToEvents() {
+        StringBuilder reported = new StringBuilder();
+        GameSimulation simulation = new GameSimulation(1);
+        simulation.setEvents(new FrameProfilerTest.RecordingEvents(reported));
+        for (int i = 0; i < 61; i++) {
+            simulation.step(TICK, false);
+        }
+        assertEquals("spawn " + simulation.getBots().get(0).getCharacterType(), reported.toString().trim());
+    }
+
+    @Test
+    public void testSpawnsDoNotDependOnFrameTimes() {
+        StringBuilder smoothEvents = new StringBuilder();
+        GameSimulation smooth = new GameSimulation(5);
+        smooth.setEvents(new FrameProfilerTest.RecordingEvents(smoothEvents));
+        StringBuilder droppingEvents = new StringBuilder();
+        GameSimulation dropping = new GameSimulation(5);
+        dropping.setEvents(new FrameProfilerTest.RecordingEvents(droppingEvents));
+        for (int frame = 0; frame < 60 * 20; frame++) {
+            smooth.advance(TICK, false);
+            // every tenth frame takes as long as ten frames
+            if (frame % 10 == 9) {
+                dropping.advance(TICK * 10, false);
+            }
+        }
+        assertTrue(smoothEvents.indexOf("spawn") >= 0);
+        assertEquals(smoothEvents.toString(), droppingEvents.toString());
+        // a game over drops the rest of its frame, which is up to a whole long frame of steps
+        int gameOvers = smoothEvents.toString().split("over ", -1).length - 1;
+        long stepsPerLongFrame = Math.round(TICK * 10 / GameSimulation.STEP_TIME);
+        assertTrue(dropping.getStepCount() <= smooth.getStepCount() + 1);
+        assertTrue(dropping.getStepCount() >= smooth.getStepCount() - 1 - gameOvers * stepsPerLongFrame);
+    }
+
+    @Test
+    public void testPlayerStaysWithinLevel() {
+        GameSimulation simulation = new GameSimulation();
+        for (int i = 0; i < 100000; i++) {
+            simulation.step(TICK, i % 90 == 0);
+            assertTrue(simulation.getPlayerX() >= 0);
+            float maxX = GameDimensions.getLevelWidth() - GameDimensions.getDefaultCharacterWidth();
+            assertTrue(simulation.getPlayerX() <= maxX);
+        }
+    }
+
+    @Test
+    public void testAdvanceRunsFixedSteps() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.advance(GameSimulation.STEP_TIME / 2, false);
+        assertEquals(0, simulation.getSimulationTime());
+        assertEquals(0.5f, simulation.getInterpolationAlpha(), 0.001f);
+        simulation.advance(GameSimulation.STEP_TIME / 2, false);
+        assertEquals((long) (GameSimulation.STEP_TIME * 1000000000L), simulation.getSimulationTime());
+        assertEquals(0, simulation.getInterpolationAlpha(), 0.001f);
+    }
+
+    @Test
+    public void testEveryRoundHasOwnSeed() {
+        long[] roundSeeds = playRounds(new GameSimulation(3), 3);
+        assertEquals(3, roundSeeds[0]);
+        assertNotEquals(roundSeeds[0], roundSeeds[1]);
+        assertNotEquals(roundSeeds[1], roundSeeds[2]);
+        assertArrayEquals(roundSeeds, playRounds(new GameSimulation(3), 3));
+    }
+
+    /**
+     * Play until given number of game overs, never turning the player
+     * @return seeds of the rounds that have ended, as seen by the listener
+     */
+    private static long[] playRounds(final GameSimulation simulation, int rounds) {
+        final long[] roundSeeds = new long[rounds];
+        final int[] gameOvers = {0};
+        simulation.setListener(new GameSimulation.Listener() {
+            @Override
+            public void onPlayerHit(HostileCharacter character) {
+            }
+
+            @Override
+            public void onGameOver(int score) {
+                roundSeeds[gameOvers[0]++] = simulation.getRoundSeed();
+            }
+        });
+        for (int frame = 0; frame < 60 * 60 * rounds && gameOvers[0] < rounds; frame++) {
+            simulation.advance(GameSimulation.MAX_FRAME_TIME, false);
+        }
+        assertEquals(rounds, gameOvers[0]);
+        return roundSeeds;
+    }
+
+    @Test
+    public void testFlipIsAppliedOnNextStep() {
+        GameSimulation simulation = new GameSimulation();
+        BaseCharacter.Direction direction = simulation.getPlayerDirection();
+        simulation.advance(GameSimulation.STEP_TIME / 4, true);
+        assertEquals(direction, simulation.getPlayerDirection());
+        simulation.advance(GameSimulation.STEP_TIME, false);
+        assertNotEquals(direction, simulation.getPlayerDirection());
+    }
+
+    @Test
+    public void testGameOverEndsFrame() {
+        GameSimulation simulation = new GameSimulation(3);
+        final long[] gameOverTime = {-1};
+        final GameSimulation listened = simulation;
+        simulation.setListener(new GameSimulation.Listener() {
+            @Override
+            public void onPlayerHit(HostileCharacter character) {
+            }
+
+            @Override
+            public void onGameOver(int score) {
+                gameOverTime[0] = listened.getSimulationTime();
+            }
+        });
+        // long frames run many steps each, and the player never turns, so a bot catches them from behind
+        for (int frame = 0; frame < 60 * 60 && gameOverTime[0] < 0; frame++) {
+            simulation.advance(GameSimulation.MAX_FRAME_TIME, false);
+        }
+        assertTrue(gameOverTime[0] >= 0, "no game over");
+        assertEquals(gameOverTime[0], simulation.getSimulationTime());
+        assertEquals(0, simulation.getBots().getSize());
+        assertEquals(0, simulation.getInterpolationAlpha(), 0.001f);
+    }
+
+    @Test
+    public void testLongFrameIsClamped() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.advance(10, false);
+        assertTrue(simulation.getSimulationTime() <= (long) (GameSimulation.MAX_FRAME_TIME * 1000000000L));
+    }
+
+    @Test
+    public void testOwnDimensionsIgnoreScreenDimensions() {
+        LevelDimensions dimensions = new LevelDimensions(400, 300);
+        GameSimulation simulation = new GameSimulation(7, dimensions);
+        assertEquals(dimensions.getMiddleSpawnX(), simulation.getPlayerX());
+        assertEquals(dimensions.getDefaultCharacterWidth(), Mappers.COLLIDER.get(simulation.getPlayer()).width);
+        for (int i = 0; i < 10000; i++) {
+            simulation.step(TICK, i % 90 == 0);
+            assertTrue(simulation.getPlayerX() <= dimensions.getLevelWidth());
+        }
+        simulation.spawnNewBot();
+        int slot = simulation.getBots().getSize() - 1;
+        assertEquals(dimensions.getDefaultCharacterWidth(), simulation.getBots().get(slot).getRectangle().width);
+        assertTrue(simulation.getBots().getX(slot) <= dimensions.getLevelWidth());
+    }
+}
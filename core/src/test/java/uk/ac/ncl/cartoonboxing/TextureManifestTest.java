@@ -0,0 +1,58 @@
+package uk.ac.ncl.cartoonboxing;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.glutils.GLVersion;
+
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextureManifestTest {
+
+    private static final String MANIFEST = "{\"textures\": ["
+        + "{\"file\": \"atlas/sprites.atlas\", \"compressed\": \"compressed/atlas/sprites.atlas\", \"format\": \"RGBA8_ETC2_EAC\"},"
+        + "{\"file\": \"backgrounds/hills.jpg\", \"compressed\": \"compressed/backgrounds/hills.zktx\", \"format\": \"ETC1\"},"
+        + "{\"file\": \"backgrounds/city.jpg\", \"compressed\": \"compressed/backgrounds/city.zktx\", \"format\": \"ASTC\"}"
+        + "]}";
+
+    @Test
+    public void testResolvesCompressedFiles() {
+        TextureManifest manifest = TextureManifest.parse(MANIFEST, true);
+        assertEquals("compressed/atlas/sprites.atlas", manifest.resolve("atlas/sprites.atlas"));
+        assertEquals("compressed/backgrounds/hills.zktx", manifest.resolve("backgrounds/hills.jpg"));
+        assertTrue(manifest.isCompressed("compressed/backgrounds/hills.zktx"));
+        assertFalse(manifest.isCompressed("backgrounds/hills.jpg"));
+    }
+
+    @Test
+    public void testKeepsImagesWithoutSupportedFormat() {
+        TextureManifest manifest = TextureManifest.parse(MANIFEST, false);
+        assertEquals("atlas/sprites.atlas", manifest.resolve("atlas/sprites.atlas"));
+        // ETC1 is always usable
+        assertEquals("compressed/backgrounds/hills.zktx", manifest.resolve("backgrounds/hills.jpg"));
+        assertEquals("backgrounds/city.jpg", manifest.resolve("backgrounds/city.jpg"));
+        assertEquals("sounds/boo.wav", TextureManifest.NONE.resolve("sounds/boo.wav"));
+    }
+
+    @Test
+    public void testEtc2Support() {
+        assertTrue(TextureManifest.isEtc2Supported(new GLVersion(Application.ApplicationType.Android, "OpenGL ES 3.2 V@415.0", "", "")));
+        assertFalse(TextureManifest.isEtc2Supported(new GLVersion(Application.ApplicationType.Android, "OpenGL ES 2.0 build 1.9", "", "")));
+        assertTrue(TextureManifest.isEtc2Supported(new GLVersion(Application.ApplicationType.Desktop, "4.6.0 NVIDIA 470.57", "", "")));
+        assertFalse(TextureManifest.isEtc2Supported(new GLVersion(Application.ApplicationType.Desktop, "3.3.0", "", "")));
+    }
+
+    @Test
+    public void testCompressedPaths() {
+        assertEquals("compressed/tiers/low/backgrounds/hills.zktx", TextureManifest.compressedPath("tiers/low/backgrounds/hills.jpg"));
+        assertEquals("compressed/atlas/sprites.atlas", TextureManifest.compressedPath("atlas/sprites.atlas"));
+    }
+
+    @Test
+    public void testCompressedTextureSize() {
+        // 8x8 RGBA8 ETC2 EAC: 4 blocks, then one block each for 4x4, 2x2 and 1x1
+        assertEquals(7 * 16, BackgroundCache.compressedBytes(GL30.GL_COMPRESSED_RGBA8_ETC2_EAC, 8, 8, 4));
+        assertEquals(4 * 8, BackgroundCache.compressedBytes(0x8D64, 8, 8, 1));
+    }
+}
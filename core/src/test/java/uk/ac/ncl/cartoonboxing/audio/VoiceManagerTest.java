@@ -0,0 +1,122 @@
+package uk.ac.ncl.cartoonboxing.audio;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.LongArray;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VoiceManagerTest {
+
+    private static final long SECOND = 1000000000L;
+
+    private LongArray played;
+    private LongArray stopped;
+    private SoundEffect punch;
+    private SoundEffect boo;
+    private VoiceManager voiceManager;
+
+    @Before
+    public void setUp() {
+        played = new LongArray();
+        stopped = new LongArray();
+        punch = new SoundEffect(fakeSound(), 2, 0, 0.5f);
+        boo = new SoundEffect(fakeSound(), 1, 1, 2f);
+        voiceManager = new VoiceManager(3);
+    }
+
+    /**
+     * Sound that hands out increasing voice IDs, and records which voices are played and stopped
+     */
+    private Sound fakeSound() {
+        return (Sound) Proxy.newProxyInstance(Sound.class.getClassLoader(), new Class<?>[]{Sound.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("play")) {
+                    long id = played.size + stopped.size * 1000L;
+                    played.add(id);
+                    return id;
+                }
+                if (method.getName().equals("stop") && args != null) {
+                    stopped.add((Long) args[0]);
+                }
+                return method.getReturnType() == long.class ? 0L : null;
+            }
+        });
+    }
+
+    @Test
+    public void testSameFrameRequestsPlayOnce() {
+        voiceManager.play(punch);
+        voiceManager.play(punch);
+        voiceManager.play(punch);
+        voiceManager.update(0);
+        assertEquals(1, played.size);
+        assertEquals(1, voiceManager.getVoiceCount());
+        assertEquals(2, voiceManager.getDeduplicatedCount());
+    }
+
+    @Test
+    public void testEffectStealsItsOldestVoice() {
+        for (int frame = 0; frame < 3; frame++) {
+            voiceManager.play(punch);
+            voiceManager.update(frame);
+        }
+        assertEquals(2, voiceManager.getVoiceCount(punch));
+        assertEquals(1, voiceManager.getStolenCount());
+        assertEquals(1, stopped.size);
+        assertEquals(played.get(0), stopped.get(0));
+    }
+
+    @Test
+    public void testHigherPriorityStealsWhenFull() {
+        SoundEffect other = new SoundEffect(fakeSound(), 2, 0, 0.5f);
+        voiceManager.play(punch);
+        voiceManager.play(other);
+        voiceManager.update(0);
+        voiceManager.play(other);
+        voiceManager.update(1);
+        assertEquals(3, voiceManager.getVoiceCount());
+        voiceManager.play(boo);
+        voiceManager.update(2);
+        assertEquals(3, voiceManager.getVoiceCount());
+        assertEquals(1, voiceManager.getVoiceCount(boo));
+        // the oldest of the lowest priority voices is the first punch
+        assertEquals(0, voiceManager.getVoiceCount(punch));
+        assertEquals(1, voiceManager.getStolenCount());
+    }
+
+    @Test
+    public void testLowerPriorityIsDroppedWhenFull() {
+        SoundEffect alarm = new SoundEffect(fakeSound(), 3, 2, 2f);
+        for (int frame = 0; frame < 3; frame++) {
+            voiceManager.play(alarm);
+            voiceManager.update(frame);
+        }
+        voiceManager.play(punch);
+        voiceManager.update(3);
+        assertEquals(0, voiceManager.getVoiceCount(punch));
+        assertEquals(1, voiceManager.getDroppedCount());
+        assertEquals(0, voiceManager.getStolenCount());
+    }
+
+    @Test
+    public void testFinishedVoicesAreReleased() {
+        voiceManager.play(punch);
+        voiceManager.play(boo);
+        voiceManager.update(0);
+        voiceManager.update(SECOND);
+        assertEquals(1, voiceManager.getVoiceCount());
+        assertEquals(1, voiceManager.getVoiceCount(boo));
+        assertEquals(2, voiceManager.getPeakVoiceCount());
+        voiceManager.stop(boo);
+        assertEquals(0, voiceManager.getVoiceCount());
+        assertEquals(1, stopped.size);
+    }
+}
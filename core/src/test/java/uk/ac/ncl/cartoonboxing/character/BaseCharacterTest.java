@@ -1,6 +1,31 @@
 package uk.ac.ncl.cartoonboxing.character;
 
-class BaseCharacterTest {
+import org.junit.Before;
+import org.junit.Test;
 
+import uk.ac.ncl.cartoonboxing.GameDimensions;
 
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BaseCharacterTest {
+
+    @Before
+    public void setUp() {
+        GameDimensions.update(1080, 1920);
+    }
+
+    @Test
+    public void testResetRestoresStartingCoordinates() {
+        for (int i = 0; i < 100; i++) {
+            HostileCharacter character = new HostileCharacter(BaseCharacter.CharacterType.FAST_BOI);
+            character.updateX(1000, 0.5f);
+            character.reset();
+            if (character.getMovingDirection() == BaseCharacter.Direction.LEFT) {
+                assertEquals(GameDimensions.getLevelWidth(), character.getX());
+            } else {
+                assertEquals(-GameDimensions.getDefaultCharacterWidth(), character.getX());
+            }
+            assertEquals(BaseCharacter.CharacterType.FAST_BOI, character.getCharacterType());
+        }
+    }
 }
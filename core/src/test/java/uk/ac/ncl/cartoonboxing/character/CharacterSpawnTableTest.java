@@ -0,0 +1,44 @@
+package uk.ac.ncl.cartoonboxing.character;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CharacterSpawnTableTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testPickedTypeIsEligibleForDifficulty() {
+        CharacterSpawnTable table = CharacterSpawnTable.getDefault();
+        for (int difficulty = 15; difficulty <= 150; difficulty++) {
+            for (int i = 0; i < 100; i++) {
+                BaseCharacter.CharacterType type = table.pick(difficulty, random);
+                assertTrue(type.getSPEED() * CharacterSpawnTable.DIFFICULTY_SPEED_RATIO <= difficulty + 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testDefaultTypeWhenNothingIsEligible() {
+        assertEquals(BaseCharacter.CharacterType.getDEFAULT_CHARACTER_TYPE(), CharacterSpawnTable.getDefault().pick(0, random));
+    }
+
+    @Test
+    public void testWeightsShapeSpawnMix() {
+        float[] weights = new float[BaseCharacter.CharacterType.values().length];
+        weights[BaseCharacter.CharacterType.SLOW_BOI.getID()] = 3;
+        weights[BaseCharacter.CharacterType.THE_SPECIMEN.getID()] = 1;
+        CharacterSpawnTable table = new CharacterSpawnTable(weights);
+        int[] counts = new int[weights.length];
+        int picks = 100000;
+        for (int i = 0; i < picks; i++) {
+            counts[table.pick(1000, random).getID()]++;
+        }
+        assertEquals(0, counts[BaseCharacter.CharacterType.FAST_BOI.getID()]);
+        assertEquals(0.75, (double) counts[BaseCharacter.CharacterType.SLOW_BOI.getID()] / picks, 0.01);
+        assertEquals(0.25, (double) counts[BaseCharacter.CharacterType.THE_SPECIMEN.getID()] / picks, 0.01);
+    }
+}
@@ -0,0 +1,143 @@
+package uk.ac.ncl.cartoonboxing.character;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.ncl.cartoonboxing.GameDimensions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CharacterStoreTest {
+
+    @Before
+    public void setUp() {
+        GameDimensions.update(1080, 1920);
+    }
+
+    @Test
+    public void testViewMatchesStoredCharacter() {
+        CharacterStore store = new CharacterStore(2);
+        for (int i = 0; i < 10; i++) {
+            store.add(BaseCharacter.CharacterType.byID(i % 6));
+        }
+        assertEquals(10, store.getSize());
+        for (int i = 0; i < store.getSize(); i++) {
+            HostileCharacter view = store.get(i);
+            assertEquals(store.getCharacterType(i), view.getCharacterType());
+            assertEquals(store.getX(i), view.getX());
+            assertFalse(view.isOutOfBounds());
+            if (view.getMovingDirection() == BaseCharacter.Direction.LEFT) {
+                assertEquals(GameDimensions.getLevelWidth(), view.getX());
+            } else {
+                assertEquals(-GameDimensions.getDefaultCharacterWidth(), view.getX());
+            }
+        }
+    }
+
+    @Test
+    public void testMoveMatchesUpdateX() {
+        CharacterStore store = new CharacterStore();
+        store.add(BaseCharacter.CharacterType.FAST_BOI);
+        HostileCharacter character = new HostileCharacter(BaseCharacter.CharacterType.FAST_BOI);
+        character.movingDirection = store.get(0).getMovingDirection();
+        character.setX(store.getX(0));
+        store.move(1000 * 0.1f);
+        character.updateX(1000, 0.1f);
+        assertEquals(character.getX(), store.getX(0), 0.01f);
+    }
+
+    @Test
+    public void testViewUpdateXUsesSlotSpeed() {
+        CharacterStore store = new CharacterStore();
+        store.add(BaseCharacter.CharacterType.FAST_BOI);
+        store.add(BaseCharacter.CharacterType.FAST_BOI, 1.5f);
+        float[] before = {store.getX(0), store.getX(1)};
+        store.get(0).updateX(1000, 0.1f);
+        store.get(1).updateX(1000, 0.1f);
+        float fastDistance = Math.abs(store.getX(0) - before[0]);
+        assertEquals(BaseCharacter.CharacterType.FAST_BOI.getSPEED() * 100, fastDistance, 0.01f);
+        assertEquals(1.5f * 100, Math.abs(store.getX(1) - before[1]), 0.01f);
+    }
+
+    @Test
+    public void testSetCharacterTypeKeepsOverriddenSpeed() {
+        CharacterStore store = new CharacterStore();
+        float multiplier = 1.25f;
+        store.add(BaseCharacter.CharacterType.SLOW_BOI, (float) (BaseCharacter.CharacterType.SLOW_BOI.getSPEED() * multiplier));
+        store.get(0).setCharacterType(BaseCharacter.CharacterType.FAST_BOI);
+        assertEquals(BaseCharacter.CharacterType.FAST_BOI, store.getCharacterType(0));
+        float before = store.getX(0);
+        store.move(100);
+        assertEquals(BaseCharacter.CharacterType.FAST_BOI.getSPEED() * multiplier * 100, Math.abs(store.getX(0) - before), 0.01f);
+    }
+
+    @Test
+    public void testCompactMovesLastCharacterIntoRemovedSlot() {
+        CharacterStore store = new CharacterStore();
+        for (int i = 0; i < 6; i++) {
+            store.add(BaseCharacter.CharacterType.byID(i));
+        }
+        store.markDead(2);
+        assertEquals(1, store.compact());
+        assertEquals(5, store.getSize());
+        assertEquals(BaseCharacter.CharacterType.byID(1), store.getCharacterType(1));
+        assertEquals(BaseCharacter.CharacterType.byID(5), store.getCharacterType(2));
+        assertEquals(BaseCharacter.CharacterType.byID(4), store.getCharacterType(4));
+    }
+
+    @Test
+    public void testRemoveOutOfBounds() {
+        CharacterStore store = new CharacterStore();
+        for (int i = 0; i < 6; i++) {
+            store.add(BaseCharacter.CharacterType.byID(i));
+        }
+        store.move(GameDimensions.getLevelWidth() * 10);
+        assertEquals(6, store.compact());
+        assertEquals(0, store.getSize());
+    }
+
+    @Test
+    public void testCompactRemovesMarkedCharacters() {
+        CharacterStore store = new CharacterStore(2);
+        for (int i = 0; i < 12; i++) {
+            store.add(BaseCharacter.CharacterType.byID(i % 6));
+            store.move(i);
+        }
+        int[] typeCounts = new int[6];
+        for (int i = 0; i < store.getSize(); i++) {
+            if (i % 3 == 0 || i == store.getSize() - 1) {
+                store.markDead(i);
+            } else {
+                typeCounts[store.getCharacterType(i).getID()]++;
+            }
+        }
+        store.markDead(0);
+        assertEquals(5, store.getDeadCount());
+        assertEquals(5, store.compact());
+        assertEquals(7, store.getSize());
+        assertEquals(0, store.getDeadCount());
+        for (int i = 0; i < store.getSize(); i++) {
+            assertFalse(store.isDead(i));
+            typeCounts[store.getCharacterType(i).getID()]--;
+        }
+        assertArrayEquals(new int[6], typeCounts);
+        SweepBroadphase broadphase = store.getBroadphase();
+        assertEquals(store.getSize(), broadphase.getSize());
+        for (int i = 1; i < broadphase.getSize(); i++) {
+            assertTrue(store.getX(broadphase.get(i - 1)) <= store.getX(broadphase.get(i)));
+        }
+    }
+
+    @Test
+    public void testInterpolatesBetweenSteps() {
+        CharacterStore store = new CharacterStore();
+        store.add(BaseCharacter.CharacterType.THE_SPECIMEN);
+        float before = store.getX(0);
+        store.savePreviousPositions();
+        store.move(100);
+        float after = store.getX(0);
+        assertEquals(before, store.getInterpolatedX(0, 0));
+        assertEquals(after, store.getInterpolatedX(0, 1));
+        assertEquals((before + after) / 2, store.getInterpolatedX(0, 0.5f), 0.001f);
+    }
+}
@@ -10,13 +10,22 @@ public class CharacterTypeTest {
 
     @Test
     public void testRandomType() {
+        double slowest = Double.MAX_VALUE;
+        for (BaseCharacter.CharacterType type : BaseCharacter.CharacterType.values()) {
+            slowest = Math.min(slowest, type.getSPEED());
+        }
         ArrayList<BaseCharacter.CharacterType> list = new ArrayList<>();
         for (double i = 0.1; i <= 1.0; i+=0.05) {
             for (int j = 0; j < 100; j++) {
                 list.add(BaseCharacter.CharacterType.randomType(i));
             }
             for (BaseCharacter.CharacterType type : list) {
-                assertTrue(type.getSPEED() <= i);
+                if (i < slowest) {
+                    // no type is slow enough, so the default type is picked
+                    assertEquals(BaseCharacter.CharacterType.getDEFAULT_CHARACTER_TYPE(), type);
+                } else {
+                    assertTrue(type.getSPEED() <= i);
+                }
             }
             list.clear();
         }
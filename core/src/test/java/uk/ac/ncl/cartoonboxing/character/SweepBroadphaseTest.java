@@ -0,0 +1,90 @@
+package uk.ac.ncl.cartoonboxing.character;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import uk.ac.ncl.cartoonboxing.GameDimensions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SweepBroadphaseTest {
+
+    private CharacterStore store;
+
+    @Before
+    public void setUp() {
+        GameDimensions.update(1080, 1920);
+        store = new CharacterStore(4);
+        // interleave spawns with movement, so that characters spread out and cross each other
+        for (int i = 0; i < 300; i++) {
+            store.add(BaseCharacter.CharacterType.byID(i % 6));
+            store.move(7f);
+            if (i % 7 == 0) {
+                store.markDead(store.getSize() / 2);
+            }
+            if (i % 5 == 0) {
+                store.markDead(store.getSize() / 3);
+            }
+            store.compact();
+        }
+    }
+
+    @Test
+    public void testOrderedAlongX() {
+        SweepBroadphase broadphase = store.getBroadphase();
+        assertEquals(store.getSize(), broadphase.getSize());
+        for (int i = 1; i < broadphase.getSize(); i++) {
+            assertTrue(store.getX(broadphase.get(i - 1)) <= store.getX(broadphase.get(i)));
+        }
+    }
+
+    @Test
+    public void testQueryMatchesBruteForce() {
+        IntArray result = new IntArray();
+        int width = GameDimensions.getDefaultCharacterWidth();
+        for (float minX = -width; minX <= GameDimensions.getLevelWidth(); minX += 13) {
+            result.clear();
+            store.getBroadphase().query(minX, width, result);
+            Set<Integer> found = new HashSet<>();
+            for (int i = 0; i < result.size; i++) {
+                found.add(result.get(i));
+            }
+            Set<Integer> expected = new HashSet<>();
+            for (int slot = 0; slot < store.getSize(); slot++) {
+                if (store.overlaps(slot, minX, width)) {
+                    expected.add(slot);
+                }
+            }
+            assertEquals(expected, found);
+        }
+    }
+
+    @Test
+    public void testPairsMatchBruteForce() {
+        final Set<Long> found = new HashSet<>();
+        store.getBroadphase().findOverlappingPairs(new SweepBroadphase.OverlapListener() {
+            @Override
+            public void onOverlap(int slotA, int slotB) {
+                found.add(pairKey(slotA, slotB));
+            }
+        });
+        Set<Long> expected = new HashSet<>();
+        for (int a = 0; a < store.getSize(); a++) {
+            for (int b = a + 1; b < store.getSize(); b++) {
+                if (store.overlaps(a, store.getX(b), store.width[b])) {
+                    expected.add(pairKey(a, b));
+                }
+            }
+        }
+        assertEquals(expected, found);
+    }
+
+    private static long pairKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+}
@@ -0,0 +1,142 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.ashley.utils.ImmutableArray;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.ncl.cartoonboxing.GameSimulation;
+import uk.ac.ncl.cartoonboxing.LevelDimensions;
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+import uk.ac.ncl.cartoonboxing.character.CharacterStore;
+import uk.ac.ncl.cartoonboxing.character.HostileCharacter;
+import uk.ac.ncl.cartoonboxing.spawn.WaveScript;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntitySystemsTest {
+
+    private static final LevelDimensions DIMENSIONS = new LevelDimensions(1000, 800);
+    /**
+     * A slow bot every few steps, so that bots pile up long before any reaches the player
+     */
+    private static final WaveScript SCRIPT = WaveScript.parse(
+        "{\"bands\": [{\"score\": 0, \"interval\": 0.05, \"speed\": [0.1, 0.1]}]}");
+
+    private GameSimulation simulation;
+    private PooledEngine engine;
+    private ImmutableArray<Entity> botEntities;
+
+    @Before
+    public void setUp() {
+        simulation = new GameSimulation(1, DIMENSIONS);
+        simulation.setWaveScript(SCRIPT);
+        engine = simulation.getEngine();
+        botEntities = engine.getEntitiesFor(Mappers.BOTS);
+    }
+
+    private void spawnBots(int count) {
+        while (simulation.getBots().getSize() < count) {
+            simulation.step(GameSimulation.STEP_TIME, false);
+        }
+    }
+
+    @Test
+    public void testEveryBotIsAnEntityOfItsSlot() {
+        spawnBots(10);
+        assertEveryBotIsAnEntityOfItsSlot();
+        assertEquals(botEntities.size() + 1, engine.getEntities().size());
+    }
+
+    @Test
+    public void testBotEntitiesFollowCompaction() {
+        spawnBots(10);
+        CharacterStore bots = simulation.getBots();
+        Entity[] entities = new Entity[botEntities.size()];
+        float[] xs = new float[entities.length];
+        BaseCharacter.CharacterType[] types = new BaseCharacter.CharacterType[entities.length];
+        boolean[] dead = new boolean[entities.length];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = botEntities.get(i);
+            int slot = Mappers.BOT.get(entities[i]).slot;
+            xs[i] = bots.getX(slot);
+            types[i] = bots.getCharacterType(slot);
+            dead[i] = slot % 3 == 0;
+            if (dead[i]) {
+                bots.markDead(slot);
+            }
+        }
+        engine.getSystem(BoundsSystem.class).update(0);
+
+        assertEveryBotIsAnEntityOfItsSlot();
+        for (int i = 0; i < entities.length; i++) {
+            if (dead[i]) {
+                // back in the pool, without components
+                assertNull(Mappers.BOT.get(entities[i]));
+            } else {
+                int slot = Mappers.BOT.get(entities[i]).slot;
+                assertEquals(xs[i], bots.getX(slot));
+                assertEquals(types[i], bots.getCharacterType(slot));
+            }
+        }
+    }
+
+    @Test
+    public void testGameOverRemovesBotEntities() {
+        spawnBots(5);
+        final boolean[] gameOver = {false};
+        simulation.setListener(new GameSimulation.Listener() {
+            @Override
+            public void onPlayerHit(HostileCharacter character) {
+            }
+
+            @Override
+            public void onGameOver(int score) {
+                gameOver[0] = true;
+            }
+        });
+        // the player never turns, so a bot catches them from behind
+        for (int i = 0; i < 120 * 60 && !gameOver[0]; i++) {
+            simulation.step(GameSimulation.STEP_TIME, false);
+        }
+        assertTrue(gameOver[0]);
+        assertEquals(0, botEntities.size());
+        assertEquals(1, engine.getEntities().size());
+    }
+
+    @Test
+    public void testMovementKeepsPreviousPosition() {
+        PositionComponent position = Mappers.POSITION.get(simulation.getPlayer());
+        float x = position.x;
+        float velocity = Mappers.VELOCITY.get(simulation.getPlayer()).x;
+        engine.getSystem(MovementSystem.class).update(0.1f);
+        assertEquals(x, position.previousX);
+        assertEquals(x + velocity * 0.1f, position.x, 0.001f);
+    }
+
+    @Test
+    public void testBoundsKeepPlayerInLevel() {
+        PositionComponent position = Mappers.POSITION.get(simulation.getPlayer());
+        float width = Mappers.COLLIDER.get(simulation.getPlayer()).width;
+        position.x = -50;
+        engine.getSystem(BoundsSystem.class).update(0);
+        assertEquals(0, position.x);
+        position.x = DIMENSIONS.getLevelWidth();
+        engine.getSystem(BoundsSystem.class).update(0);
+        assertEquals(DIMENSIONS.getLevelWidth() - width, position.x);
+        assertEquals(1, engine.getEntitiesFor(Mappers.PLAYERS).size());
+    }
+
+    private void assertEveryBotIsAnEntityOfItsSlot() {
+        CharacterStore bots = simulation.getBots();
+        assertEquals(bots.getSize(), botEntities.size());
+        boolean[] seen = new boolean[bots.getSize()];
+        for (int i = 0; i < botEntities.size(); i++) {
+            int slot = Mappers.BOT.get(botEntities.get(i)).slot;
+            assertFalse(seen[slot]);
+            seen[slot] = true;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package uk.ac.ncl.cartoonboxing.history;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionJournalTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("session-journal").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private static SessionRecord session(int index) {
+        // scores repeat with a period of 1000, so that ties are ranked by time
+        return new SessionRecord((index * 7919) % 1000, index, 1.5f, index * 31L, index);
+    }
+
+    private static void appendSessions(SessionJournal journal, int from, int to) {
+        for (int i = from; i < to; i++) {
+            journal.append(session(i));
+        }
+    }
+
+    private static void assertTopIsBest(SessionJournal journal, int sessionCount) {
+        assertEquals(Math.min(sessionCount, 5), journal.getTopCount());
+        for (int rank = 0; rank < journal.getTopCount(); rank++) {
+            SessionRecord record = journal.getTop(rank);
+            int better = 0;
+            for (int i = 0; i < sessionCount; i++) {
+                if (session(i).ranksAbove(record)) {
+                    better++;
+                }
+            }
+            assertEquals(rank, better);
+        }
+    }
+
+    @Test
+    public void testTopSessionsSurviveReopening() throws IOException {
+        SessionJournal journal = new SessionJournal(directory, 5);
+        appendSessions(journal, 0, 5000);
+        assertTopIsBest(journal, 5000);
+        journal.dispose();
+
+        journal = new SessionJournal(directory, 5);
+        assertEquals(5000, journal.getSessionCount());
+        assertTopIsBest(journal, 5000);
+        assertEquals(999, journal.getBestScore());
+        SessionRecord best = journal.getTop(0);
+        assertEquals(session((int) best.getEndTime()).getSeed(), best.getSeed());
+        appendSessions(journal, 5000, 9000);
+        journal.dispose();
+
+        journal = new SessionJournal(directory, 5);
+        assertEquals(9000, journal.getSessionCount());
+        assertTopIsBest(journal, 9000);
+        journal.dispose();
+    }
+
+    @Test
+    public void testIndexIsRebuiltFromJournal() throws IOException {
+        SessionJournal journal = new SessionJournal(directory, 5);
+        appendSessions(journal, 0, 300);
+        journal.dispose();
+        assertTrue(new File(directory, SessionJournal.INDEX_FILE_NAME).delete());
+
+        journal = new SessionJournal(directory, 5);
+        assertEquals(300, journal.getSessionCount());
+        assertTopIsBest(journal, 300);
+        journal.dispose();
+    }
+
+    @Test
+    public void testIndexCatchesUpWithJournal() throws IOException {
+        SessionJournal journal = new SessionJournal(directory, 5);
+        appendSessions(journal, 0, 100);
+        journal.dispose();
+        // index written before the last 40 sessions, as if the game stopped between the two writes
+        RandomAccessFile index = new RandomAccessFile(new File(directory, SessionJournal.INDEX_FILE_NAME), "rw");
+        index.seek(16);
+        index.writeLong(60);
+        index.close();
+
+        journal = new SessionJournal(directory, 5);
+        assertEquals(100, journal.getSessionCount());
+        assertTopIsBest(journal, 100);
+        journal.dispose();
+    }
+}
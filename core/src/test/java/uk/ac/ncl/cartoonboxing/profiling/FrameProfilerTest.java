@@ -0,0 +1,135 @@
+package uk.ac.ncl.cartoonboxing.profiling;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameProfilerTest {
+
+    @Test
+    public void testRecordsFramesOnlyWhenEnabled() {
+        FrameProfiler profiler = new FrameProfiler(10);
+        recordFrame(profiler, 3);
+        assertEquals(0, profiler.getFrameHistogram().getSize());
+        profiler.setEnabled(true);
+        recordFrame(profiler, 3);
+        recordFrame(profiler, 5);
+        assertEquals(2, profiler.getFrameHistogram().getSize());
+        assertEquals(5, profiler.getEntityHistogram().getMax());
+        assertTrue(profiler.getPhaseHistogram(FrameProfiler.Phase.MOVEMENT).getMax() >= 0);
+    }
+
+    @Test
+    public void testNoneCannotBeEnabled() {
+        FrameProfiler.NONE.setEnabled(true);
+        assertFalse(FrameProfiler.NONE.isEnabled());
+    }
+
+    @Test
+    public void testCountsCollectionsPerFrame() {
+        final long[] collections = {10};
+        FrameProfiler profiler = new FrameProfiler(10);
+        profiler.setGcCounter(new FrameProfiler.GcCounter() {
+            @Override
+            public long getCollectionCount() {
+                return collections[0];
+            }
+        });
+        profiler.setEnabled(true);
+        collections[0] = 12;
+        recordFrame(profiler, 1);
+        recordFrame(profiler, 1);
+        assertEquals(2, profiler.getGcHistogram().get(0));
+        assertEquals(0, profiler.getGcHistogram().get(1));
+    }
+
+    @Test
+    public void testCsvHasRowPerFrame() throws IOException {
+        FrameProfiler profiler = new FrameProfiler(10);
+        profiler.setEnabled(true);
+        recordFrame(profiler, 1);
+        recordFrame(profiler, 2);
+        StringWriter writer = new StringWriter();
+        profiler.writeCsv(writer);
+        String[] lines = writer.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("frame,clear_us,draw_us"));
+        assertTrue(lines[2].endsWith(",2,0"));
+    }
+
+    @Test
+    public void testReportsFramesToEventsWhenDisabled() {
+        StringBuilder reported = new StringBuilder();
+        FrameProfiler profiler = new FrameProfiler(10);
+        profiler.setEvents(new RecordingEvents(reported));
+        recordFrame(profiler, 2);
+        assertEquals("frame CLEAR DRAW SPAWN HIT_CHECK INPUT REMOVAL MOVEMENT end 2", reported.toString().trim());
+    }
+
+    /**
+     * Events appended to a string, for checking what has been reported
+     */
+    public static class RecordingEvents implements GameEvents {
+        private final StringBuilder reported;
+
+        public RecordingEvents(StringBuilder reported) {
+            this.reported = reported;
+        }
+
+        @Override
+        public void frameBegin() {
+            reported.append("frame ");
+        }
+
+        @Override
+        public void frameEnd(int entityCount) {
+            reported.append("end ").append(entityCount).append(' ');
+        }
+
+        @Override
+        public void phaseBegin(FrameProfiler.Phase phase) {
+            reported.append(phase).append(' ');
+        }
+
+        @Override
+        public void phaseEnd(FrameProfiler.Phase phase) {
+        }
+
+        @Override
+        public void botSpawned(BaseCharacter.CharacterType characterType) {
+            reported.append("spawn ").append(characterType).append(' ');
+        }
+
+        @Override
+        public void playerHit(BaseCharacter.CharacterType characterType, int score) {
+            reported.append("hit ").append(score).append(' ');
+        }
+
+        @Override
+        public void gameOver(int score, long roundDuration) {
+            reported.append("over ").append(score).append(' ');
+        }
+
+        @Override
+        public void paused() {
+        }
+
+        @Override
+        public void resumed() {
+        }
+    }
+
+    private static void recordFrame(FrameProfiler profiler, int entityCount) {
+        profiler.beginFrame();
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            profiler.begin(phase);
+            profiler.end(phase);
+        }
+        profiler.endFrame(entityCount);
+    }
+}
@@ -0,0 +1,42 @@
+package uk.ac.ncl.cartoonboxing.profiling;
+
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingHistogramTest {
+
+    @Test
+    public void testPercentiles() {
+        RingHistogram histogram = new RingHistogram(100);
+        for (int i = 100; i >= 1; i--) {
+            histogram.add(i);
+        }
+        assertEquals(50, histogram.getPercentile(50));
+        assertEquals(95, histogram.getPercentile(95));
+        assertEquals(99, histogram.getPercentile(99));
+        assertEquals(100, histogram.getMax());
+    }
+
+    @Test
+    public void testKeepsLatestSamples() {
+        RingHistogram histogram = new RingHistogram(3);
+        for (int i = 1; i <= 5; i++) {
+            histogram.add(i);
+        }
+        assertEquals(3, histogram.getSize());
+        assertEquals(3, histogram.get(0));
+        assertEquals(5, histogram.get(2));
+        assertEquals(5, histogram.getMax());
+    }
+
+    @Test
+    public void testEmpty() {
+        RingHistogram histogram = new RingHistogram(3);
+        assertEquals(0, histogram.getPercentile(50));
+        histogram.add(7);
+        histogram.clear();
+        assertEquals(0, histogram.getSize());
+        assertEquals(0, histogram.getMax());
+    }
+}
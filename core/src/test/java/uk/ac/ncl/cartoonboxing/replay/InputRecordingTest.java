@@ -0,0 +1,52 @@
+package uk.ac.ncl.cartoonboxing.replay;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputRecordingTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        InputRecording recording = new InputRecording(-1234567890123L, 1080, 1920);
+        recording.record(0, InputRecording.FLIP);
+        recording.record(5, InputRecording.RESET_SCORE);
+        recording.record(5, InputRecording.FLIP);
+        recording.record(100000, InputRecording.FLIP);
+        recording.setStepCount(100001);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        recording.write(output);
+
+        InputRecording read = InputRecording.read(new ByteArrayInputStream(output.toByteArray()));
+        assertEquals(recording.getSeed(), read.getSeed());
+        assertEquals(1080, read.getLevelWidth());
+        assertEquals(1920, read.getLevelHeight());
+        assertEquals(100001, read.getStepCount());
+        assertEquals(4, read.getInputCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(recording.getInputStep(i), read.getInputStep(i));
+            assertEquals(recording.getInputType(i), read.getInputType(i));
+        }
+    }
+
+    @Test
+    public void testInputsAreCompact() throws IOException {
+        InputRecording recording = new InputRecording(1, 1080, 1920);
+        for (int i = 0; i < 1000; i++) {
+            recording.record(i * 60, InputRecording.FLIP);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        recording.write(output);
+        // header of 21 bytes, step and input counts, and two bytes per input
+        assertTrue(output.size() <= 21 + 6 + 2 * 1000);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        InputRecording.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5}));
+    }
+}
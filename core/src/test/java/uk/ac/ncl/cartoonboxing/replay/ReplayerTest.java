@@ -0,0 +1,62 @@
+package uk.ac.ncl.cartoonboxing.replay;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import uk.ac.ncl.cartoonboxing.GameDimensions;
+import uk.ac.ncl.cartoonboxing.GameSimulation;
+import uk.ac.ncl.cartoonboxing.character.HostileCharacter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayerTest {
+
+    @Before
+    public void setUp() {
+        GameDimensions.update(1080, 1920);
+    }
+
+    @Test
+    public void testReplayEndsInRecordedState() throws IOException {
+        GameSimulation simulation = new GameSimulation(42);
+        InputRecording recording = simulation.startRecording();
+        final boolean[] gameOver = new boolean[1];
+        simulation.setListener(new GameSimulation.Listener() {
+            @Override
+            public void onPlayerHit(HostileCharacter character) {
+            }
+
+            @Override
+            public void onGameOver(int score) {
+                gameOver[0] = true;
+            }
+        });
+        for (int i = 0; i < 20000; i++) {
+            if (gameOver[0]) {
+                simulation.resetScore();
+                gameOver[0] = false;
+            }
+            simulation.step(GameSimulation.STEP_TIME, i % 97 == 0 || i % 131 == 0);
+        }
+        assertTrue(simulation.getHighScore() > 0);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        recording.write(output);
+        InputRecording read = InputRecording.read(new ByteArrayInputStream(output.toByteArray()));
+        GameSimulation replayed = Replayer.replay(read, false);
+
+        assertEquals(simulation.getStepCount(), replayed.getStepCount());
+        assertEquals(simulation.getSimulationTime(), replayed.getSimulationTime());
+        assertEquals(simulation.getCurrentScore(), replayed.getCurrentScore());
+        assertEquals(simulation.getHighScore(), replayed.getHighScore());
+        assertEquals(simulation.getPlayerX(), replayed.getPlayerX());
+        assertEquals(simulation.getBots().getSize(), replayed.getBots().getSize());
+        for (int i = 0; i < simulation.getBots().getSize(); i++) {
+            assertEquals(simulation.getBots().getX(i), replayed.getBots().getX(i));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package uk.ac.ncl.cartoonboxing.spawn;
+
+import com.badlogic.gdx.utils.LongArray;
+
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpawnSchedulerTest {
+
+    private static final long SECOND = 1000000000L;
+    private static final WaveScript SCRIPT = WaveScript.parse("{\"bands\": ["
+        + "{\"score\": 0, \"interval\": 1.0},"
+        + "{\"score\": 5, \"interval\": 2.0, \"burst\": 3, \"spacing\": 0.25}"
+        + "]}");
+
+    /**
+     * Spawner keeping the time of every spawn
+     */
+    private static class SpawnTimes implements SpawnScheduler.Spawner {
+        final LongArray times = new LongArray();
+        long time;
+
+        @Override
+        public void spawn(WaveScript.Band band) {
+            times.add(time);
+        }
+    }
+
+    @Test
+    public void testSpawnsWavesOnSchedule() {
+        SpawnScheduler scheduler = new SpawnScheduler(SCRIPT);
+        scheduler.start(0, 0);
+        SpawnTimes spawns = new SpawnTimes();
+        assertEquals(0, scheduler.update(SECOND - 1, 0, spawns));
+        assertEquals(SECOND, scheduler.getNextTime());
+        assertEquals(1, scheduler.update(SECOND, 0, spawns));
+        assertEquals(2 * SECOND, scheduler.getNextTime());
+    }
+
+    @Test
+    public void testSpawnsBurstsOfScoreBand() {
+        SpawnScheduler scheduler = new SpawnScheduler(SCRIPT);
+        scheduler.start(0, 5);
+        SpawnTimes spawns = new SpawnTimes();
+        for (spawns.time = 0; spawns.time <= 3 * SECOND; spawns.time += SECOND / 100) {
+            scheduler.update(spawns.time, 5, spawns);
+        }
+        assertEquals(3, spawns.times.size);
+        assertEquals(2 * SECOND, spawns.times.get(0));
+        assertEquals(2 * SECOND + SECOND / 4, spawns.times.get(1));
+        assertEquals(2 * SECOND + SECOND / 2, spawns.times.get(2));
+    }
+
+    @Test
+    public void testLongStepsRunTheSameSchedule() {
+        SpawnScheduler scheduler = new SpawnScheduler(SCRIPT);
+        scheduler.start(0, 5);
+        SpawnTimes spawns = new SpawnTimes();
+        // a single step over four waves spawns all of their bots, and the next wave stays on schedule
+        assertEquals(12, scheduler.update(9 * SECOND, 5, spawns));
+        assertEquals(10 * SECOND, scheduler.getNextTime());
+    }
+
+    @Test
+    public void testRestartDropsScheduledSpawns() {
+        SpawnScheduler scheduler = new SpawnScheduler(SCRIPT);
+        scheduler.start(0, 5);
+        scheduler.update(2 * SECOND, 5, new SpawnTimes());
+        scheduler.start(2 * SECOND, 0);
+        SpawnTimes spawns = new SpawnTimes();
+        assertEquals(0, scheduler.update(3 * SECOND - 1, 0, spawns));
+        assertEquals(1, scheduler.update(3 * SECOND, 0, spawns));
+    }
+}
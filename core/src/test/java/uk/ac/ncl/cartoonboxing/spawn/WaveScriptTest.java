@@ -0,0 +1,71 @@
+package uk.ac.ncl.cartoonboxing.spawn;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter.CharacterType;
+import uk.ac.ncl.cartoonboxing.character.CharacterSpawnTable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WaveScriptTest {
+
+    private static final String SCRIPT = "{\"bands\": ["
+        + "{\"score\": 0, \"interval\": 1.0},"
+        + "{\"score\": 10, \"interval\": 2.0, \"burst\": 3, \"spacing\": 0.5, \"speed\": [1.0, 2.0],"
+        + " \"mix\": {\"THE_SPECIMEN\": 1}}"
+        + "]}";
+
+    @Test
+    public void testParsesBands() {
+        WaveScript script = WaveScript.parse(SCRIPT);
+        assertEquals(2, script.getBandCount());
+        WaveScript.Band first = script.bandAt(9);
+        assertEquals(1000000000L, first.getInterval());
+        assertEquals(1, first.getBurst());
+        assertEquals(1f, first.speedAt(9));
+        WaveScript.Band second = script.bandAt(10);
+        assertEquals(3, second.getBurst());
+        assertEquals(500000000L, second.getSpacing());
+    }
+
+    @Test
+    public void testRampsSpeedWithinBand() {
+        WaveScript.Band band = WaveScript.parse(SCRIPT).bandAt(10);
+        assertEquals(1f, band.speedAt(10), 0.001f);
+        // the last band ramps over 100 points by default
+        assertEquals(1.5f, band.speedAt(60), 0.001f);
+        assertEquals(2f, band.speedAt(500), 0.001f);
+    }
+
+    @Test
+    public void testPicksTypesFromMix() {
+        WaveScript script = WaveScript.parse(SCRIPT);
+        Random random = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(CharacterType.THE_SPECIMEN, script.bandAt(20).pickType(20, CharacterSpawnTable.getDefault(), random));
+            assertTrue(script.bandAt(0).pickType(0, CharacterSpawnTable.getDefault(), random).getSPEED() <= 0.15);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsScriptWithoutBands() {
+        WaveScript.parse("{\"bands\": []}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsUnsortedBands() {
+        WaveScript.parse("{\"bands\": [{\"score\": 0, \"interval\": 1.0}, {\"score\": 0, \"interval\": 1.0}]}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsBurstLongerThanInterval() {
+        WaveScript.parse("{\"bands\": [{\"score\": 0, \"interval\": 1.0, \"burst\": 3, \"spacing\": 0.5}]}");
+    }
+
+    @Test
+    public void testDefaultScriptIsValid() {
+        assertTrue(WaveScript.getDefault().getBandCount() > 1);
+    }
+}
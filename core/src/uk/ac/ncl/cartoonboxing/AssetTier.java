@@ -0,0 +1,70 @@
+package uk.ac.ncl.cartoonboxing;
+
+/**
+ * Resolution tiers of the character and background textures. Lower tiers are generated at build time by
+ * scaling down the full-size images (./gradlew :tools:generateResolutionTiers), and stored under their own
+ * directory with the same layout, so a tier only changes where assets are loaded from.
+ * On smaller screens, a lower tier uploads and samples a fraction of the texels, without visibly losing detail.
+ * @author Piotr Grela
+ */
+public enum AssetTier {
+    FULL(1f, ""),
+    MEDIUM(0.75f, "tiers/medium/"),
+    LOW(0.5f, "tiers/low/");
+
+    /**
+     * Width of the full-size character images
+     */
+    static final int FULL_CHARACTER_WIDTH = 300;
+    /**
+     * Height of the full-size background images
+     */
+    static final int FULL_BACKGROUND_HEIGHT = 1200;
+    private static final AssetTier[] TIERS = values();
+
+    private final float scale;
+    private final String directory;
+
+    AssetTier(float scale, String directory) {
+        this.scale = scale;
+        this.directory = directory;
+    }
+
+    /**
+     * @return size of the tier's images relative to the full-size ones
+     */
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * @param file path of a full-size asset
+     * @return path of the asset in this tier
+     */
+    public String path(String file) {
+        return directory + file;
+    }
+
+    /**
+     * Pick the tier whose images are closest in size to what the level draws them at: characters at
+     * the default character width, backgrounds at the level height. Whichever needs the larger scale decides.
+     * @return tier closest to the needed scale, by ratio
+     */
+    public static AssetTier select(LevelDimensions dimensions) {
+        float neededScale = Math.max((float) dimensions.getDefaultCharacterWidth() / FULL_CHARACTER_WIDTH,
+            (float) dimensions.getLevelHeight() / FULL_BACKGROUND_HEIGHT);
+        if (neededScale <= 0) {
+            return FULL;
+        }
+        AssetTier closest = FULL;
+        double closestDistance = Double.MAX_VALUE;
+        for (AssetTier tier : TIERS) {
+            double distance = Math.abs(Math.log(tier.scale / neededScale));
+            if (distance < closestDistance) {
+                closest = tier;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+}
@@ -0,0 +1,198 @@
+package uk.ac.ncl.cartoonboxing;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.KTXTextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectLongMap;
+
+import lombok.Getter;
+
+/**
+ * Level backgrounds, loaded on demand through the AssetManager and kept within a texture memory budget.
+ * Loaded backgrounds are kept in least recently used order; whenever they exceed the budget, the least recently
+ * used ones are unloaded, which disposes their textures. The background in use is never evicted.
+ * Backgrounds can be prefetched (e.g. the next level's), so that they decode in the background and are ready
+ * by the time they are needed. Backgrounds are loaded in the cache's {@link AssetTier}, compressed if the
+ * {@link TextureManifest} has them.
+ * @author Piotr Grela
+ */
+public class BackgroundCache {
+
+    /**
+     * Texture memory budget of backgrounds if none is configured, enough for the current and the next level
+     */
+    public static final long DEFAULT_BUDGET_BYTES = 32L * 1024 * 1024;
+    private static final TextureLoader.TextureParameter LINEAR_FILTERED = filtered(Texture.TextureFilter.Linear);
+    /**
+     * Filters of compressed backgrounds, whose files carry the mipmaps
+     */
+    private static final TextureLoader.TextureParameter MIPMAPPED = filtered(Texture.TextureFilter.MipMapLinearNearest);
+
+    private final AssetManager manager;
+    private final AssetTier tier;
+    private final TextureManifest textures;
+    @Getter
+    private final long budgetBytes;
+    /**
+     * Loaded backgrounds, least recently used first
+     */
+    private final Array<String> resident;
+    /**
+     * Backgrounds queued in the AssetManager, not loaded yet
+     */
+    private final Array<String> loading;
+    private final ObjectLongMap<String> sizes;
+    /**
+     * Texture memory taken by loaded backgrounds, in bytes
+     */
+    @Getter
+    private long residentBytes;
+    private String current;
+
+    /**
+     * @param budgetBytes texture memory that backgrounds may take, although the background in use is always kept
+     */
+    public BackgroundCache(AssetManager manager, AssetTier tier, TextureManifest textures, long budgetBytes) {
+        this.manager = manager;
+        this.tier = tier;
+        this.textures = textures;
+        this.budgetBytes = budgetBytes;
+        resident = new Array<String>();
+        loading = new Array<String>();
+        sizes = new ObjectLongMap<String>();
+    }
+
+    private static TextureLoader.TextureParameter filtered(Texture.TextureFilter minFilter) {
+        TextureLoader.TextureParameter parameter = new TextureLoader.TextureParameter();
+        parameter.minFilter = minFilter;
+        parameter.magFilter = Texture.TextureFilter.Linear;
+        return parameter;
+    }
+
+    /**
+     * Queue the level's background for loading, if it is not loaded yet
+     * @param levelType level, or null for none
+     */
+    public void prefetch(Level.LevelType levelType) {
+        if (levelType == null) {
+            return;
+        }
+        String file = fileOf(levelType);
+        if (!resident.contains(file, false) && !loading.contains(file, false)) {
+            loading.add(file);
+            manager.load(new AssetDescriptor<Texture>(file, Texture.class,
+                textures.isCompressed(file) ? MIPMAPPED : LINEAR_FILTERED));
+        }
+    }
+
+    /**
+     * Make the level's background the one in use, loading it right away if it has not been prefetched
+     * @return background texture, owned by the cache
+     */
+    public Texture use(Level.LevelType levelType) {
+        String file = fileOf(levelType);
+        // the previous background may be evicted from now on
+        current = file;
+        if (!resident.contains(file, false)) {
+            prefetch(levelType);
+            manager.finishLoadingAsset(file);
+            update();
+        }
+        // most recently used backgrounds go last
+        resident.removeValue(file, false);
+        resident.add(file);
+        return manager.get(file, Texture.class);
+    }
+
+    /**
+     * Account for backgrounds that have finished loading, evicting others if over budget
+     */
+    public void update() {
+        for (int i = loading.size - 1; i >= 0; i--) {
+            String file = loading.get(i);
+            if (manager.isLoaded(file, Texture.class)) {
+                loading.removeIndex(i);
+                long size = textureBytes(manager.get(file, Texture.class));
+                sizes.put(file, size);
+                residentBytes += size;
+                resident.add(file);
+            }
+        }
+        evictOverBudget();
+    }
+
+    public int getResidentCount() {
+        return resident.size;
+    }
+
+    public boolean isResident(Level.LevelType levelType) {
+        return resident.contains(fileOf(levelType), false);
+    }
+
+    private String fileOf(Level.LevelType levelType) {
+        return textures.resolve(tier.path(levelType.getBackgroundFile()));
+    }
+
+    private void evictOverBudget() {
+        int i = 0;
+        while (residentBytes > budgetBytes && i < resident.size) {
+            String file = resident.get(i);
+            if (file.equals(current)) {
+                i++;
+                continue;
+            }
+            resident.removeIndex(i);
+            residentBytes -= sizes.remove(file, 0);
+            manager.unload(file);
+        }
+    }
+
+    /**
+     * @return approximate texture memory taken by the texture, without any driver overhead
+     */
+    static long textureBytes(Texture texture) {
+        TextureData data = texture.getTextureData();
+        if (data instanceof KTXTextureData) {
+            KTXTextureData compressed = (KTXTextureData) data;
+            return compressedBytes(compressed.getGlInternalFormat(), texture.getWidth(), texture.getHeight(),
+                compressed.getNumberOfMipMapLevels());
+        }
+        return (long) texture.getWidth() * texture.getHeight() * bytesPerPixel(texture.getTextureData().getFormat());
+    }
+
+    /**
+     * @return texture memory taken by the ETC compressed texture, including all its mipmap levels
+     */
+    static long compressedBytes(int glInternalFormat, int width, int height, int levels) {
+        int blockBytes = glInternalFormat == GL30.GL_COMPRESSED_RGBA8_ETC2_EAC ? 16 : 8;
+        long bytes = 0;
+        for (int level = 0; level < levels; level++) {
+            bytes += (long) ((width + 3) / 4) * ((height + 3) / 4) * blockBytes;
+            width = Math.max(1, width / 2);
+            height = Math.max(1, height / 2);
+        }
+        return bytes;
+    }
+
+    static int bytesPerPixel(Pixmap.Format format) {
+        switch (format) {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            case RGB888:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package uk.ac.ncl.cartoonboxing;
+
+/**
+ * Caps the frame rate by sleeping away what is left of the frame's time slot.
+ * Gameplay runs in fixed simulation steps, so capping the frame rate changes how often the game is drawn,
+ * not how it plays.
+ * @author Piotr Grela
+ */
+public class FrameLimiter {
+
+    private long frameDuration;
+    private long nextFrameTime;
+
+    /**
+     * @param maxFramesPerSecond frame rate cap, or 0 for no cap
+     */
+    public FrameLimiter(int maxFramesPerSecond) {
+        setMaxFramesPerSecond(maxFramesPerSecond);
+    }
+
+    /**
+     * @param maxFramesPerSecond frame rate cap, or 0 for no cap
+     */
+    public void setMaxFramesPerSecond(int maxFramesPerSecond) {
+        frameDuration = maxFramesPerSecond > 0 ? 1000000000L / maxFramesPerSecond : 0;
+        nextFrameTime = 0;
+    }
+
+    /**
+     * Sleep until the current frame's time slot is over. Frames that already took longer are not delayed,
+     * and do not make the following frames shorter either.
+     */
+    public void sync() {
+        if (frameDuration == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (nextFrameTime - now > 0) {
+            long sleep = nextFrameTime - now;
+            try {
+                Thread.sleep(sleep / 1000000L, (int) (sleep % 1000000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            nextFrameTime += frameDuration;
+        } else {
+            nextFrameTime = now + frameDuration;
+        }
+    }
+}
@@ -1,72 +1,94 @@
 package uk.ac.ncl.cartoonboxing;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.scenes.scene2d.Event;
 import com.badlogic.gdx.scenes.scene2d.EventListener;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
-import com.badlogic.gdx.utils.Align;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.StreamUtils;
 import com.badlogic.gdx.utils.TimeUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
 import lombok.Getter;
-import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+import uk.ac.ncl.cartoonboxing.audio.SoundEffect;
+import uk.ac.ncl.cartoonboxing.audio.VoiceManager;
 import uk.ac.ncl.cartoonboxing.character.HostileCharacter;
-import uk.ac.ncl.cartoonboxing.character.PlayerCharacter;
+import uk.ac.ncl.cartoonboxing.ecs.RenderSystem;
+import uk.ac.ncl.cartoonboxing.history.SessionJournal;
+import uk.ac.ncl.cartoonboxing.history.SessionRecord;
+import uk.ac.ncl.cartoonboxing.hud.DebugOverlay;
+import uk.ac.ncl.cartoonboxing.hud.DistanceFieldFonts;
+import uk.ac.ncl.cartoonboxing.hud.FontStyle;
+import uk.ac.ncl.cartoonboxing.hud.Hud;
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfiler;
+import uk.ac.ncl.cartoonboxing.profiling.GameEvents;
+import uk.ac.ncl.cartoonboxing.replay.InputRecording;
 
 /**
  * Main class of the game that controls rendering, management of game entities (characters, levels, etc.)
  *
  * @author Piotr Grela
  */
-public class Game implements Screen {
+public class Game implements Screen, GameSimulation.Listener {
     //region Constants
-    private final int GLOBAL_MOVING_SPEED_PX = 1000;
-    private final long SPAWN_DELTA_TIME = 1000000000L;
+    private static final float BUTTON_OUTLINE_WIDTH = 8;
+    private static final int PROFILER_HISTORY_SIZE = 600;
+    private static final int DEBUG_OVERLAY_POINTER = 2;
+    private static final int MAX_VOICES = 8;
+    private static final int PUNCH_MAX_VOICES = 4;
+    private static final int PUNCH_PRIORITY = 0;
+    private static final float PUNCH_DURATION = 0.75f;
+    private static final int BOO_PRIORITY = 1;
+    private static final float BOO_DURATION = 2.6f;
     //endregion
     //region Fonts
-    FreeTypeFontGenerator fontGenerator;
-    BitmapFont scoreFont;
-    BitmapFont welcomeFont;
-    BitmapFont gameOverFont;
-    BitmapFont scoreAchievedFont;
-    BitmapFont gamePausedFont;
-    BitmapFont buttonFont;
+    private DistanceFieldFonts fonts;
+    private FontStyle buttonFontStyle;
     //endregion
     //region Misc. references
     private OrthographicCamera camera;
     private SpriteBatch batch;
-    private Texture backgroundTexture;
     private TextButton pauseButton;
     private Sprite backgroundSprite;
+    private Hud hud;
     private GameInstance gameInstance;
-    private Array<Sound> soundArray;
-    private Sound booSound;
+    private GameAssets assets;
+    private FrameLimiter frameLimiter;
+    //endregion
+    //region Sounds
+    private VoiceManager voiceManager;
+    private SoundEffect punchEffect;
+    private SoundEffect booEffect;
+    //endregion
+    //region Profiling
+    private FrameProfiler profiler;
+    private GameEvents events;
+    private DebugOverlay debugOverlay;
+    private boolean isDebugOverlayShown;
+    private boolean wasDebugOverlayToggled;
     //endregion
-    //region Characters and level
+    //region Simulation and level
     private Level currentLevel;
-    private PlayerCharacter playerCharacter;
-    private Array<BaseCharacter> characterArray;
-    private Array<HostileCharacter> botArray;
+    @Getter
+    private GameSimulation simulation;
+    private RenderSystem renderSystem;
+    private InputRecording recording;
+    private FileHandle recordingFile;
+    private SessionJournal sessionJournal;
     //endregion
     //region Game-state variables
-    private long lastSpawnTime;
     private long lastGameOverTime = 0;
-    @Getter
-    private int currentScore;
-    @Getter
-    private int highScore;
     //endregion
     //region Booleans
     private boolean isGamePaused;
@@ -80,71 +102,51 @@ public class Game implements Screen {
         isGamePaused = true;
         isGameOver = false;
         isNewSession = true;
-        currentScore = 0;
-        highScore = 0;
-        lastSpawnTime = TimeUtils.nanoTime();
         //endregion
         //region Camera and batch
         camera = new OrthographicCamera();
         camera.setToOrtho(false);
         batch = gameInstance.batch;
-        //endregion
-        //region Level and characters
-        currentLevel = new Level();
-        characterArray = new Array<BaseCharacter>();
-        botArray = new Array<HostileCharacter>();
+        assets = gameInstance.assets;
+        frameLimiter = new FrameLimiter(gameInstance.options.getGameplayFrameCap());
         //endregion
         //region Update game dimensions based on now-established data
         GameDimensions.update();
-        playerCharacter = new PlayerCharacter();
-        characterArray.add(playerCharacter);
-        //endregion
-        //region Fonts
-        //region fontGenerator and fontParameter
-        fontGenerator = new FreeTypeFontGenerator(Gdx.files.internal("fonts/OpenComicFont.ttf"));
-        FreeTypeFontGenerator.FreeTypeFontParameter fontParameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
-        //endregion
-        //region scoreFont
-        fontParameter.size = 80;
-        fontParameter.borderColor = Color.BLACK;
-        fontParameter.color = Color.WHITE;
-        fontParameter.borderWidth = 20;
-        scoreFont = fontGenerator.generateFont(fontParameter);
-        //endregion
-        //region welcomeFont
-        fontParameter.borderWidth = 8;
-        fontParameter.size = GameDimensions.getLevelHeight() / 20;
-        fontParameter.color = Color.RED;
-        welcomeFont = fontGenerator.generateFont(fontParameter);
         //endregion
-        //region gameOverFont
-        fontParameter.size = GameDimensions.getLevelHeight() / 10;
-        gameOverFont = fontGenerator.generateFont(fontParameter);
-        //endregion
-        //region scoreAchievedFont
-
-        fontParameter.size = GameDimensions.getLevelHeight() / 20;
-        fontParameter.color = Color.YELLOW;
-        scoreAchievedFont = fontGenerator.generateFont(fontParameter);
-        //endregion
-        //region gamePausedFont
-        fontParameter.color = Color.BLUE;
-        gamePausedFont = fontGenerator.generateFont(fontParameter);
-        //endregion
-        //region buttonFont
-        fontParameter.color = Color.WHITE;
-        fontParameter.size = GameDimensions.getLevelHeight() / 30;
-        buttonFont = fontGenerator.generateFont(fontParameter);
+        //region Level and simulation
+        currentLevel = new Level();
+        Long seed = gameInstance.options.getSeed();
+        simulation = seed != null ? new GameSimulation(seed) : new GameSimulation();
+        simulation.setListener(this);
+        renderSystem = new RenderSystem(assets, simulation.getBots());
+        simulation.getEngine().addSystem(renderSystem);
+        if (gameInstance.options.isRecordingSessions()) {
+            recording = simulation.startRecording();
+            recordingFile = Gdx.files.local("replays/session-" + TimeUtils.millis() + ".cbr");
+        }
+        sessionJournal = openSessionJournal();
+        profiler = new FrameProfiler(PROFILER_HISTORY_SIZE);
+        profiler.setGcCounter(gameInstance.options.getGcCounter());
+        events = gameInstance.options.getGameEvents();
+        profiler.setEvents(events);
+        simulation.setProfiler(profiler);
+        simulation.setEvents(events);
         //endregion
+        //region Fonts
+        fonts = new DistanceFieldFonts(assets.getFont());
+        buttonFontStyle = fonts.createStyle(GameDimensions.getLevelHeight() / 30f, Color.WHITE, Color.BLACK, BUTTON_OUTLINE_WIDTH);
+        hud = new Hud(fonts, GameDimensions.getLevelWidth(), GameDimensions.getLevelHeight());
+        voiceManager = new VoiceManager(MAX_VOICES);
+        debugOverlay = new DebugOverlay(fonts, profiler, voiceManager);
         //endregion
         //region Textures and buttons
-        backgroundTexture = new Texture(Gdx.files.internal("backgrounds/background.png"));
-        backgroundSprite = new Sprite(backgroundTexture);
+        // the background is a standalone texture, streamed in by the background cache with the next level's
+        backgroundSprite = assets.createBackgroundSprite(currentLevel.getLevelType());
         float heightWidthRatio = backgroundSprite.getHeight() / backgroundSprite.getWidth();
         backgroundSprite.setSize(GameDimensions.getLevelHeight() / heightWidthRatio, GameDimensions.getLevelHeight());
         backgroundSprite.setPosition(0, 0);
         TextButton.TextButtonStyle pauseButtonStyle = new TextButton.TextButtonStyle();
-        pauseButtonStyle.font = buttonFont;
+        pauseButtonStyle.font = buttonFontStyle.getFont();
         pauseButton = new TextButton("PAUSE", pauseButtonStyle);
         pauseButton.setPosition(GameDimensions.getLevelWidth() - 400, GameDimensions.getLevelHeight() - 100);
         pauseButton.setTouchable(Touchable.enabled);
@@ -157,196 +159,204 @@ public class Game implements Screen {
         });
         //endregion
         //region Sounds
-        soundArray = new Array<>();
-        soundArray.add(Gdx.audio.newSound(Gdx.files.internal("sounds/punch1.wav")));
-        soundArray.add(Gdx.audio.newSound(Gdx.files.internal("sounds/punch2.wav")));
-        soundArray.add(Gdx.audio.newSound(Gdx.files.internal("sounds/punch3.wav")));
-        booSound = Gdx.audio.newSound(Gdx.files.internal("sounds/boo.wav"));
+        punchEffect = new SoundEffect(assets.getPunchSounds(), PUNCH_MAX_VOICES, PUNCH_PRIORITY, PUNCH_DURATION);
+        booEffect = new SoundEffect(assets.getBooSound(), 1, BOO_PRIORITY, BOO_DURATION);
         //endregion
     }
 
     @Override
     public void render(float delta) {
+        boolean isPlaying = !isGamePaused;
+        if (isPlaying) {
+            frameLimiter.sync();
+        }
+        profiler.beginFrame();
+        profiler.begin(FrameProfiler.Phase.CLEAR);
         Gdx.gl.glClearColor(0, 0, 0.5f, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        profiler.end(FrameProfiler.Phase.CLEAR);
+        assets.continueLoading();
         camera.update();
 
+        // simulation runs before drawing, so that characters are drawn interpolated into the current frame
+        if (isPlaying) {
+            simulation.advance(delta, Gdx.input.justTouched());
+            if (isGameOver) {
+                // saved once the step that ended the game has completed, so that replays include it
+                saveRecording();
+            }
+        }
+        // sounds requested by the simulation steps of this frame
+        voiceManager.update(TimeUtils.nanoTime());
+
+        profiler.begin(FrameProfiler.Phase.DRAW);
         batch.setProjectionMatrix(camera.combined);
         batch.begin();
         backgroundSprite.draw(batch);
-        if (isGamePaused) {
-            // if the game has not started, but previous round also already happened, display game over message
-            if (isGameOver) {
-                gameOverFont.draw(batch, "Game over!", 0, (float) GameDimensions.getLevelHeight() * 2 / 3, GameDimensions.getLevelWidth(), Align.center, true);
-                scoreAchievedFont.draw(batch, "Your score: " + currentScore + "\nTap anywhere to try again", 0, (float) GameDimensions.getLevelHeight() / 3, GameDimensions.getLevelWidth(), Align.center, true);
-            }
-            // if game has not been started, display welcome message
-            else {
-                if (isNewSession) {
-                    drawCharacter(playerCharacter, batch);
-                    welcomeFont.draw(batch, "Welcome to Cartoon Boxing!\nTap anywhere to start", 0, (float) GameDimensions.getLevelHeight() / 2, GameDimensions.getLevelWidth(), Align.center, true);
-                } else {
-                    drawCharacters();
-                    gamePausedFont.draw(batch, "Game paused\nTap anywhere to resume", 0, (float) GameDimensions.getLevelHeight() / 2, GameDimensions.getLevelWidth(), Align.center, true);
-                    scoreFont.draw(batch, "Score: " + currentScore + "\nHigh Score: " + highScore, 50, GameDimensions.getLevelHeight() - 50);
-                }
-            }
-        } else {
-            scoreFont.draw(batch, "Score: " + currentScore + "\nHigh Score: " + highScore, 50, GameDimensions.getLevelHeight() - 50);
-            drawCharacters();
+        // before the game has been started, only the player is there, and after game over, no characters are shown
+        if (!isGameOver) {
+            renderSystem.draw(batch, simulation.getInterpolationAlpha());
+        }
+        hud.setState(currentHudState());
+        hud.setScore(simulation.getCurrentScore(), highScore());
+        hud.draw(batch);
+        if (!isGamePaused) {
+            fonts.begin(batch);
+            fonts.apply(batch, buttonFontStyle);
             pauseButton.draw(batch, 1);
+            fonts.end(batch);
+        }
+        if (isDebugOverlayShown) {
+            debugOverlay.draw(batch, GameDimensions.getLevelHeight());
         }
         batch.end();
+        profiler.end(FrameProfiler.Phase.DRAW);
 
-        if (!isGamePaused) {
-            performLevelActivities();
-        } else if (Gdx.input.justTouched() && TimeUtils.nanoTime() - lastGameOverTime > 1000000000) {
-            booSound.stop();
+        profiler.begin(FrameProfiler.Phase.INPUT);
+        toggleDebugOverlayIfRequested();
+        if (!isPlaying && Gdx.input.justTouched() && TimeUtils.nanoTime() - lastGameOverTime > 1000000000) {
+            voiceManager.stop(booEffect);
             if (isGameOver) {
                 isGameOver = false;
-                currentScore = 0;
+                simulation.resetScore();
             }
             isGamePaused = false;
             isNewSession = false;
+            events.resumed();
         }
+        profiler.end(FrameProfiler.Phase.INPUT);
+        profiler.endFrame(simulation.getEngine().getEntities().size());
+        updateRenderingMode();
     }
 
-    private void drawCharacter(BaseCharacter character, Batch batch) {
-        boolean flip = character.isTextureNotPositionedCorrectly();
-        float height = character.getRectangle().height;
-        float width = character.getRectangle().width;
-        batch.draw(character.getCharacterType().getTexture(), flip ? character.getX() + width : character.getX(), character.getY(), flip ? -width : width, height);
-    }
-
-    private void drawCharacters() {
-        for (BaseCharacter character : characterArray) {
-            drawCharacter(character, batch);
+    /**
+     * A three finger touch (or F3) shows the debug overlay and starts profiling. Hiding the overlay
+     * again writes the recorded frames to a CSV file in local storage.
+     */
+    private void toggleDebugOverlayIfRequested() {
+        boolean toggled = Gdx.input.isTouched(DEBUG_OVERLAY_POINTER) || Gdx.input.isKeyPressed(Input.Keys.F3);
+        if (toggled && !wasDebugOverlayToggled) {
+            isDebugOverlayShown = !isDebugOverlayShown;
+            if (isDebugOverlayShown) {
+                profiler.setEnabled(true);
+            } else {
+                profiler.setEnabled(false);
+                exportProfile();
+            }
         }
+        wasDebugOverlayToggled = toggled;
     }
 
-    @Override
-    public void dispose() {
-        for (BaseCharacter character : characterArray) {
-            character.getCharacterType().getTexture().dispose();
+    private void exportProfile() {
+        FileHandle file = Gdx.files.local("frame-profile-" + TimeUtils.millis() + ".csv");
+        Writer writer = file.writer(false, "UTF-8");
+        try {
+            profiler.writeCsv(writer);
+            Gdx.app.log("FrameProfiler", "Frame profile written to " + file.file().getAbsolutePath());
+        } catch (IOException e) {
+            Gdx.app.error("FrameProfiler", "Could not write frame profile", e);
+        } finally {
+            StreamUtils.closeQuietly(writer);
         }
-        for (Sound sound : soundArray) {
-            sound.dispose();
-        }
-        booSound.dispose();
-        batch.dispose();
-        fontGenerator.dispose();
-        backgroundTexture.dispose();
     }
 
     /**
-     * Perform all common checks and activities if game once game is running
+     * Nothing moves on the welcome, pause and game over screens, so while the game is paused frames are only
+     * rendered on request: libGDX requests one for every input event, lifecycle event and posted runnable.
+     * Continuous rendering is back on from the frame the game is resumed in.
      */
-    private void performLevelActivities() {
-        spawnBotIfAppropriate();
-        checkForHit();
-        checkForClick();
-        removeCharactersIfAppropriate();
-        moveCharacters();
-    }
-
-    private void checkForClick() {
-        if (Gdx.input.justTouched()) {
-            playerCharacter.flipCharacter();
+    private void updateRenderingMode() {
+        boolean continuous = !isGamePaused;
+        if (Gdx.graphics.isContinuousRendering() != continuous) {
+            Gdx.graphics.setContinuousRendering(continuous);
         }
     }
 
-    private void processPlayerHit(HostileCharacter character) {
-        Sound punchSound = soundArray.random();
-        punchSound.play();
-        removeBot(character);
-        // TODO Bot losing animation
-        currentScore++;
-    }
-
     /**
-     * Check if player character's model overlaps with any other character's model.
-     * If so, it will check who's "hit" who, and act accordingly.
+     * @return best score of this and all previous sessions
      */
-    private void checkForHit() {
-        for (HostileCharacter character : botArray) {
-            if (character.getRectangle().overlaps(playerCharacter.getRectangle())) {
-                if (character.inFrontOf(playerCharacter)) {
-                    processPlayerHit(character);
-                } else {
-                    gameOver();
-                }
-            }
-        }
+    private int highScore() {
+        int highScore = simulation.getHighScore();
+        return sessionJournal != null ? Math.max(highScore, sessionJournal.getBestScore()) : highScore;
     }
 
-    private void gameOver() {
-        if (TimeUtils.nanoTime() - lastGameOverTime > 1000000000) {
-            booSound.play();
-            lastGameOverTime = TimeUtils.nanoTime();
-            lastSpawnTime = TimeUtils.nanoTime();
-            isGameOver = true;
-            isGamePaused = true;
-            if (currentScore > highScore)
-                highScore = currentScore;
-            eradicateAllCharacters();
-            // TODO apply animations
-            playerCharacter = new PlayerCharacter();
-            characterArray.add(playerCharacter);
+    private Hud.State currentHudState() {
+        if (!isGamePaused) {
+            return Hud.State.PLAYING;
+        } else if (isGameOver) {
+            return Hud.State.GAME_OVER;
+        } else if (isNewSession) {
+            return Hud.State.WELCOME;
+        } else {
+            return Hud.State.PAUSED;
         }
     }
 
-    private void eradicateAllCharacters() {
-        characterArray.clear();
-        botArray.clear();
-//        Arrays.fill(characterArray.toArray(), null);
-//        Arrays.fill(botArray.toArray(), null);
+    @Override
+    public void dispose() {
+        saveRecording();
+        if (sessionJournal != null) {
+            sessionJournal.dispose();
+        }
+        voiceManager.stopAll();
+        // textures and sounds are owned by GameAssets
+        batch.dispose();
+        fonts.dispose();
     }
 
-    /**
-     * Method responsible for moving all characters stored in the array, and removing those that are out of level bounds.
-     * Amount of movement of each character is based on their pre-defined speed, and movingSpeedPx constant
-     */
-    private void moveCharacters() {
-        for (BaseCharacter character : characterArray) {
-            if (!character.isAtBoundary()) {
-                float deltaTime = Gdx.graphics.getDeltaTime();
-                character.updateX(GLOBAL_MOVING_SPEED_PX, deltaTime);
-            }
-        }
+    @Override
+    public void onPlayerHit(HostileCharacter character) {
+        voiceManager.play(punchEffect);
     }
 
-    public void removeCharactersIfAppropriate() {
-        for (BaseCharacter character : characterArray) {
-            if (character.isOutOfBounds()) {
-                if (!character.handleOutOfBounds()) {
-                    characterArray.removeValue(character, true);
-                    try {
-                        botArray.removeValue((HostileCharacter) character, true);
-                    } catch (Exception e) {
-                    }
-                    character = null;
-                }
-            }
-        }
+    @Override
+    public void onGameOver(int score) {
+        voiceManager.play(booEffect);
+        appendToSessionJournal(score);
+        lastGameOverTime = TimeUtils.nanoTime();
+        isGameOver = true;
+        isGamePaused = true;
+        events.paused();
     }
 
-    private void spawnNewBot() {
-        HostileCharacter character = HostileCharacter.generateRandomCharacter(currentScore);
-        botArray.add(character);
-        characterArray.add(character);
-        lastSpawnTime = TimeUtils.nanoTime();
+    private SessionJournal openSessionJournal() {
+        try {
+            return new SessionJournal(Gdx.files.local("history").file());
+        } catch (IOException e) {
+            Gdx.app.error("SessionJournal", "Could not open session history", e);
+            return null;
+        }
     }
 
-    private void spawnBotIfAppropriate() {
-        if (TimeUtils.nanoTime() - lastSpawnTime > SPAWN_DELTA_TIME - ((currentScore + 1) * 2000)) {
-            spawnNewBot();
+    private void appendToSessionJournal(int score) {
+        if (sessionJournal == null) {
+            return;
         }
+        if (sessionJournal.getWriteError() != null) {
+            Gdx.app.error("SessionJournal", "Could not write session history", sessionJournal.getWriteError());
+            sessionJournal.dispose();
+            sessionJournal = null;
+            return;
+        }
+        sessionJournal.append(new SessionRecord(score, (int) (simulation.getRoundDuration() / 1000000L),
+            (float) simulation.getRoundMaxBotSpeed(), simulation.getRoundSeed(), TimeUtils.millis()));
     }
 
-    private void removeBot(HostileCharacter character) {
-        botArray.removeValue(character, true);
-        characterArray.removeValue(character, true);
-        character = null;
+    /**
+     * Write the session recorded so far, replacing the previous save of the same session
+     */
+    private void saveRecording() {
+        if (recording == null) {
+            return;
+        }
+        OutputStream output = recordingFile.write(false);
+        try {
+            recording.write(output);
+        } catch (IOException e) {
+            Gdx.app.error("InputRecording", "Could not write session recording", e);
+        } finally {
+            StreamUtils.closeQuietly(output);
+        }
     }
 
     @Override
@@ -356,12 +366,17 @@ public class Game implements Screen {
 
     @Override
     public void resize(int width, int height) {
-
+        hud.resize(width, height);
     }
 
     @Override
     public void pause() {
+        if (!isGamePaused) {
+            events.paused();
+        }
         isGamePaused = true;
+        // draw the pause screen once before rendering stops
+        Gdx.graphics.requestRendering();
     }
 
     @Override
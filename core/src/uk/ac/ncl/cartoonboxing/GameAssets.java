@@ -0,0 +1,162 @@
+package uk.ac.ncl.cartoonboxing;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.BitmapFontLoader;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import lombok.Getter;
+
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+import uk.ac.ncl.cartoonboxing.hud.DistanceFieldFonts;
+
+/**
+ * All assets of the game, loaded through an AssetManager: files are decoded on the manager's background thread,
+ * and only the GL uploads happen on the render thread, spread over frames by {@link #update(int)}.
+ * Game code refers to assets by handle (descriptors here, region names in the CharacterType enum, background files
+ * in the LevelType enum), and resolves them through this class once loading has finished.
+ * Level backgrounds are not part of the initial load, other than the first level's: they stream in on demand
+ * through the {@link BackgroundCache}. Textures are loaded in the given {@link AssetTier}, other assets have a single size,
+ * and GPU compressed versions from the {@link TextureManifest} are loaded instead of images wherever there are any.
+ * @author Piotr Grela
+ */
+public class GameAssets implements Disposable {
+
+    private static final String SPRITE_ATLAS_FILE = "atlas/sprites.atlas";
+    public static final AssetDescriptor<BitmapFont> FONT =
+        new AssetDescriptor<BitmapFont>(DistanceFieldFonts.DEFAULT_FONT_FILE, BitmapFont.class, linearFilteredFont());
+    public static final AssetDescriptor<Sound> BOO_SOUND = new AssetDescriptor<Sound>("sounds/boo.wav", Sound.class);
+    private static final String[] PUNCH_SOUND_FILES = {"sounds/punch1.wav", "sounds/punch2.wav", "sounds/punch3.wav"};
+
+    private final AssetManager manager;
+    @Getter
+    private final AssetTier tier;
+    private final TextureManifest textures;
+    private final AssetDescriptor<TextureAtlas> spriteAtlas;
+    @Getter
+    private final BackgroundCache backgrounds;
+    private TextureRegion[] characterRegions;
+    private Array<Sound> punchSounds;
+
+    public GameAssets() {
+        this(AssetTier.FULL, TextureManifest.NONE, BackgroundCache.DEFAULT_BUDGET_BYTES);
+    }
+
+    /**
+     * Create the manager and queue all assets, without loading anything yet
+     * @param tier resolution tier of the textures
+     * @param textures compressed textures to load instead of images
+     * @param backgroundBudgetBytes texture memory budget of level backgrounds
+     */
+    public GameAssets(AssetTier tier, TextureManifest textures, long backgroundBudgetBytes) {
+        this.tier = tier;
+        this.textures = textures;
+        manager = new AssetManager();
+        spriteAtlas = new AssetDescriptor<TextureAtlas>(textures.resolve(tier.path(SPRITE_ATLAS_FILE)), TextureAtlas.class);
+        backgrounds = new BackgroundCache(manager, tier, textures, backgroundBudgetBytes);
+        backgrounds.prefetch(Level.getDefaultLevelType());
+        manager.load(spriteAtlas);
+        manager.load(FONT);
+        manager.load(BOO_SOUND);
+        for (String file : PUNCH_SOUND_FILES) {
+            manager.load(file, Sound.class);
+        }
+    }
+
+    private static BitmapFontLoader.BitmapFontParameter linearFilteredFont() {
+        BitmapFontLoader.BitmapFontParameter parameter = new BitmapFontLoader.BitmapFontParameter();
+        parameter.minFilter = Texture.TextureFilter.Linear;
+        parameter.magFilter = Texture.TextureFilter.Linear;
+        return parameter;
+    }
+
+    /**
+     * Continue loading for at most about the given time, so that a frame is never blocked by the whole upload
+     * @param budgetMillis time that can be spent on loading in this frame
+     * @return whether all assets have been loaded
+     */
+    public boolean update(int budgetMillis) {
+        boolean finished = manager.update(budgetMillis);
+        backgrounds.update();
+        return finished;
+    }
+
+    /**
+     * Continue loading prefetched assets during gameplay. Only runs a single step of the AssetManager, which
+     * does not wait for files decoding in the background, so frames are not held up by prefetching.
+     */
+    public void continueLoading() {
+        if (!manager.isFinished()) {
+            manager.update();
+            backgrounds.update();
+        }
+    }
+
+    /**
+     * @return loading progress, from 0 to 1
+     */
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    /**
+     * Block until all assets have been loaded
+     */
+    public void finishLoading() {
+        manager.finishLoading();
+    }
+
+    public TextureRegion getCharacterRegion(BaseCharacter.CharacterType characterType) {
+        if (characterRegions == null) {
+            TextureAtlas atlas = manager.get(spriteAtlas);
+            if (textures.isCompressed(spriteAtlas.fileName)) {
+                TextureManifest.useMipMaps(atlas);
+            }
+            characterRegions = new TextureRegion[BaseCharacter.CharacterType.values().length];
+            for (BaseCharacter.CharacterType type : BaseCharacter.CharacterType.values()) {
+                characterRegions[type.getID()] = atlas.findRegion(type.getRegionName());
+            }
+        }
+        return characterRegions[characterType.getID()];
+    }
+
+    /**
+     * Make the level's background the one in use, and prefetch the next level's background
+     * @return new sprite of the level's background, whose texture is owned by the background cache
+     */
+    public Sprite createBackgroundSprite(Level.LevelType levelType) {
+        Sprite sprite = new Sprite(backgrounds.use(levelType));
+        backgrounds.prefetch(levelType.next());
+        return sprite;
+    }
+
+    public BitmapFont getFont() {
+        return manager.get(FONT);
+    }
+
+    public Sound getBooSound() {
+        return manager.get(BOO_SOUND);
+    }
+
+    public Array<Sound> getPunchSounds() {
+        if (punchSounds == null) {
+            punchSounds = new Array<Sound>(PUNCH_SOUND_FILES.length);
+            for (String file : PUNCH_SOUND_FILES) {
+                punchSounds.add(manager.get(file, Sound.class));
+            }
+        }
+        return punchSounds;
+    }
+
+    @Override
+    public void dispose() {
+        manager.dispose();
+    }
+}
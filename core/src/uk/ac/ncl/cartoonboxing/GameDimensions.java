@@ -3,19 +3,12 @@ package uk.ac.ncl.cartoonboxing;
 import com.badlogic.gdx.Gdx;
 
 /**
- * A class defining dimensions and ratios used throughout the game
+ * A class defining dimensions and ratios used throughout the game, for the current screen size.
+ * Code that needs dimensions of a specific level size, independent of the screen, uses {@link LevelDimensions}.
  */
 public final class GameDimensions {
 
-    private static int levelWidth;
-    private static int levelHeight;
-    private static int defaultCharacterWidth;
-    private static int defaultCharacterHeight;
-    private static final double screenToCharacterWidthRatio = 0.2;
-    private static float middleSpawnX;
-    private static float leftmostSpawnX;
-    private static float rightmostSpawnX;
-    private static final float characterStartingY = 0;
+    private static LevelDimensions current = new LevelDimensions(0, 0);
 
     private static GameDimensions instance;
 
@@ -31,44 +24,54 @@ public final class GameDimensions {
     }
 
     public static void update(){
-        levelWidth = Gdx.graphics.getWidth();
-        levelHeight = Gdx.graphics.getHeight();
-        defaultCharacterWidth = (int)(screenToCharacterWidthRatio * levelWidth);
-        defaultCharacterHeight = (int)(defaultCharacterWidth * 1.5);
-        middleSpawnX = (levelWidth - defaultCharacterWidth)/2f;
-        leftmostSpawnX = 0;
-        rightmostSpawnX = levelWidth - defaultCharacterWidth;
+        update(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    /**
+     * Update dimensions for an explicitly given level size, e.g. when there is no graphics backend to query
+     * @param width level width in pixels
+     * @param height level height in pixels
+     */
+    public static void update(int width, int height){
+        current = new LevelDimensions(width, height);
+    }
+
+    /**
+     * @return dimensions for the current screen size
+     */
+    public static LevelDimensions getCurrent() {
+        return current;
     }
 
     public static int getLevelWidth() {
-        return levelWidth;
+        return current.getLevelWidth();
     }
 
     public static int getLevelHeight() {
-        return levelHeight;
+        return current.getLevelHeight();
     }
 
     public static int getDefaultCharacterWidth() {
-        return defaultCharacterWidth;
+        return current.getDefaultCharacterWidth();
     }
 
     public static int getDefaultCharacterHeight() {
-        return defaultCharacterHeight;
+        return current.getDefaultCharacterHeight();
     }
 
     public static float getMiddleSpawnX() {
-        return middleSpawnX;
+        return current.getMiddleSpawnX();
     }
 
     public static float getLeftmostSpawnX() {
-        return leftmostSpawnX;
+        return current.getLeftmostSpawnX();
     }
 
     public static float getRightmostSpawnX() {
-        return rightmostSpawnX;
+        return current.getRightmostSpawnX();
     }
 
     public static float getCharacterStartingY() {
-        return characterStartingY;
+        return current.getCharacterStartingY();
     }
 }
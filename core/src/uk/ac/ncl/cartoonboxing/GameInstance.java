@@ -1,19 +1,33 @@
 package uk.ac.ncl.cartoonboxing;
 
 import com.badlogic.gdx.Game;
-import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 public class GameInstance extends Game {
 
     public SpriteBatch batch;
-    private Screen screen;
+    public GameAssets assets;
+    public final GameOptions options;
+
+    public GameInstance() {
+        this(new GameOptions());
+    }
+
+    public GameInstance(GameOptions options) {
+        this.options = options;
+    }
 
     public void create() {
         batch = new SpriteBatch();
-        screen = new uk.ac.ncl.cartoonboxing.Game(this);
-        this.setScreen(screen);
+        // assets load incrementally behind the loading screen, which then switches to the game screen
+        GameDimensions.update();
+        AssetTier tier = options.getAssetTier() != null ? options.getAssetTier() : AssetTier.select(GameDimensions.getCurrent());
+        TextureManifest textures = options.isCompressedTextures()
+            ? TextureManifest.load(Gdx.files.internal(TextureManifest.FILE), TextureManifest.isEtc2Supported(Gdx.graphics.getGLVersion()))
+            : TextureManifest.NONE;
+        assets = new GameAssets(tier, textures, options.getBackgroundBudgetBytes());
+        this.setScreen(new LoadingScreen(this));
     }
 
     public void render() {
@@ -22,6 +36,7 @@ public class GameInstance extends Game {
 
     public void dispose() {
         batch.dispose();
-        screen.dispose();
+        getScreen().dispose();
+        assets.dispose();
     }
 }
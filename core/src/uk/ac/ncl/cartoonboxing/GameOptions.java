@@ -0,0 +1,48 @@
+package uk.ac.ncl.cartoonboxing;
+
+import lombok.Getter;
+import lombok.Setter;
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfiler;
+import uk.ac.ncl.cartoonboxing.profiling.GameEvents;
+
+/**
+ * Platform and build specific options passed in by the launcher
+ * @author Piotr Grela
+ */
+@Getter
+@Setter
+public class GameOptions {
+
+    /**
+     * Frame rate cap during gameplay, or 0 to render at the display's refresh rate
+     */
+    private int gameplayFrameCap;
+    /**
+     * Seed of the game's simulation, or null for a random one
+     */
+    private Long seed;
+    /**
+     * Source of garbage collection counts for the frame profiler, or null if unavailable
+     */
+    private FrameProfiler.GcCounter gcCounter;
+    /**
+     * Whether the seed and inputs of every session are written to local storage, for replaying it later
+     */
+    private boolean recordingSessions;
+    /**
+     * Texture memory that level backgrounds may take, in bytes
+     */
+    private long backgroundBudgetBytes = BackgroundCache.DEFAULT_BUDGET_BYTES;
+    /**
+     * Resolution tier of the textures, or null to pick one for the screen size
+     */
+    private AssetTier assetTier;
+    /**
+     * Whether GPU compressed textures are loaded instead of images, where the GPU supports them
+     */
+    private boolean compressedTextures = true;
+    /**
+     * Recorder of frame and gameplay events, e.g. into Java Flight Recorder on desktop JVMs
+     */
+    private GameEvents gameEvents = GameEvents.NONE;
+}
@@ -0,0 +1,422 @@
+package uk.ac.ncl.cartoonboxing;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.ashley.utils.ImmutableArray;
+
+import java.util.Random;
+
+import lombok.Getter;
+import lombok.Setter;
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+import uk.ac.ncl.cartoonboxing.character.CharacterSpawnTable;
+import uk.ac.ncl.cartoonboxing.character.CharacterStore;
+import uk.ac.ncl.cartoonboxing.character.HostileCharacter;
+import uk.ac.ncl.cartoonboxing.ecs.BotComponent;
+import uk.ac.ncl.cartoonboxing.ecs.BoundsSystem;
+import uk.ac.ncl.cartoonboxing.ecs.ColliderComponent;
+import uk.ac.ncl.cartoonboxing.ecs.CollisionSystem;
+import uk.ac.ncl.cartoonboxing.ecs.Mappers;
+import uk.ac.ncl.cartoonboxing.ecs.MovementSystem;
+import uk.ac.ncl.cartoonboxing.ecs.PlayerComponent;
+import uk.ac.ncl.cartoonboxing.ecs.PositionComponent;
+import uk.ac.ncl.cartoonboxing.ecs.RenderComponent;
+import uk.ac.ncl.cartoonboxing.ecs.VelocityComponent;
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfiler;
+import uk.ac.ncl.cartoonboxing.profiling.GameEvents;
+import uk.ac.ncl.cartoonboxing.replay.InputRecording;
+import uk.ac.ncl.cartoonboxing.spawn.SpawnScheduler;
+import uk.ac.ncl.cartoonboxing.spawn.WaveScript;
+
+/**
+ * Gameplay logic of the game (spawning, hit detection, movement and scoring), kept apart from rendering,
+ * so that it can be stepped without a GL context. Time and input are passed in explicitly on every step;
+ * the simulation never reads the clock or Gdx input by itself.
+ * Frames are turned into fixed steps of {@link #STEP_TIME} by {@link #advance(float, boolean)}, so gameplay does not
+ * depend on the frame rate; time left over between steps is exposed as an interpolation factor for rendering.
+ * All randomness comes from a single seeded Random, so a session is reproducible from its seed and the inputs
+ * applied at every step (see {@link InputRecording}). The Random is reseeded at every game over with a round seed
+ * drawn from it, so that every round has a seed of its own.
+ * Bots are spawned in waves following a {@link WaveScript}, scheduled over simulation time by a {@link SpawnScheduler}.
+ * The player and the bots are entities of a pooled Ashley engine, which every step updates with the collision,
+ * movement and bounds systems. Bots' positions, speeds and directions live in the {@link CharacterStore},
+ * which the systems run over (see {@link BotComponent}).
+ *
+ * @author Piotr Grela
+ */
+public class GameSimulation {
+    //region Constants
+    /**
+     * Speed of a character of speed 1.0, in pixels per second
+     */
+    public static final int GLOBAL_MOVING_SPEED_PX = 1000;
+    static final long GAME_OVER_COOLDOWN = 1000000000L;
+    /**
+     * Duration of a single simulation step, in seconds
+     */
+    public static final float STEP_TIME = 1f / 120;
+    /**
+     * Longest frame time simulated at once, so that a long stall does not trigger a burst of catch-up steps
+     */
+    static final float MAX_FRAME_TIME = 0.25f;
+    private static final int INITIAL_BOT_CAPACITY = 32;
+    /**
+     * Most entities, and most components of every type, that the engine keeps pooled for reuse
+     */
+    private static final int POOL_MAX_SIZE = 1000;
+    private static final BaseCharacter.CharacterType PLAYER_TYPE = BaseCharacter.CharacterType.MEDIOCRE_BOI;
+    //endregion
+    //region Characters
+    @Getter
+    private final PooledEngine engine;
+    /**
+     * Entity controlled by the user
+     */
+    @Getter
+    private final Entity player;
+    @Getter
+    private final CharacterStore bots;
+    private final ImmutableArray<Entity> botEntities;
+    //endregion
+    //region Game-state variables
+    @Getter
+    private long simulationTime;
+    /**
+     * Number of steps run so far
+     */
+    @Getter
+    private long stepCount;
+    private long lastGameOverTime;
+    @Getter
+    private int currentScore;
+    @Getter
+    private int highScore;
+    private long roundStartTime;
+    /**
+     * Speed of the fastest bot spawned since the latest game over
+     */
+    @Getter
+    private double roundMaxBotSpeed;
+    //endregion
+    //region Fixed step state
+    private float accumulator;
+    private boolean flipPending;
+    /**
+     * Fraction of a step elapsed since the latest step, for interpolating draw positions
+     */
+    @Getter
+    private float interpolationAlpha;
+    //endregion
+    //region Randomness and recording
+    @Getter
+    private final long seed;
+    /**
+     * Seed the Random was given at the start of the current round, the session's seed in the first round
+     */
+    @Getter
+    private long roundSeed;
+    private final Random random;
+    @Getter
+    private InputRecording recording;
+    /**
+     * Dimensions of the simulated level, or null to follow the current screen's {@link GameDimensions}
+     */
+    private final LevelDimensions dimensions;
+    //endregion
+    @Setter
+    private Listener listener;
+    /**
+     * Spawn weights of character types, can be replaced to tune the mix of spawned bots
+     */
+    @Getter
+    @Setter
+    private CharacterSpawnTable spawnTable = CharacterSpawnTable.getDefault();
+    /**
+     * Schedule of bot spawns, following the wave script
+     */
+    private SpawnScheduler spawnScheduler;
+    private final SpawnScheduler.Spawner spawner = new SpawnScheduler.Spawner() {
+        @Override
+        public void spawn(WaveScript.Band band) {
+            spawnNewBot(band);
+        }
+    };
+    private final CollisionSystem.Listener collisions = new CollisionSystem.Listener() {
+        @Override
+        public void onBotHit(int slot) {
+            processPlayerHit(slot);
+        }
+
+        @Override
+        public void onPlayerCaught() {
+            gameOver();
+        }
+    };
+    /**
+     * Profiler timing the phases of every step, not recording anything by default
+     */
+    @Getter
+    @Setter
+    private FrameProfiler profiler = FrameProfiler.NONE;
+    /**
+     * Recorder of spawns, hits and game overs; phases of steps are reported to it by the profiler
+     */
+    @Getter
+    @Setter
+    private GameEvents events = GameEvents.NONE;
+
+    /**
+     * Callbacks for gameplay events that the presentation layer (sounds, UI state) is interested in
+     */
+    public interface Listener {
+        void onPlayerHit(HostileCharacter character);
+
+        void onGameOver(int score);
+    }
+
+    public GameSimulation() {
+        this(new Random().nextLong());
+    }
+
+    /**
+     * @param seed seed of all randomness in the simulation (bot types and directions, player's direction)
+     */
+    public GameSimulation(long seed) {
+        this(seed, null);
+    }
+
+    /**
+     * Simulation of a level of fixed dimensions, sharing no mutable state with other simulations, so that
+     * many of them can run on different threads at once
+     * @param seed seed of all randomness in the simulation (bot types and directions, player's direction)
+     * @param dimensions dimensions of the level, or null to follow the current screen's dimensions
+     */
+    public GameSimulation(long seed, LevelDimensions dimensions) {
+        this.seed = seed;
+        this.dimensions = dimensions;
+        roundSeed = seed;
+        random = new Random(seed);
+        bots = new CharacterStore(INITIAL_BOT_CAPACITY, random, dimensions);
+        simulationTime = 0;
+        lastGameOverTime = -GAME_OVER_COOLDOWN - 1;
+        currentScore = 0;
+        highScore = 0;
+        engine = new PooledEngine(INITIAL_BOT_CAPACITY + 1, POOL_MAX_SIZE, INITIAL_BOT_CAPACITY, POOL_MAX_SIZE);
+        engine.addSystem(new CollisionSystem(this, collisions));
+        engine.addSystem(new MovementSystem(this));
+        engine.addSystem(new BoundsSystem(this));
+        botEntities = engine.getEntitiesFor(Mappers.BOTS);
+        fillBotPools(INITIAL_BOT_CAPACITY);
+        player = createPlayer();
+        resetPlayer();
+        spawnScheduler = new SpawnScheduler(WaveScript.getDefault());
+        spawnScheduler.start(0, 0);
+    }
+
+    /**
+     * Advance the simulation by a rendered frame, running as many fixed steps as the accumulated time allows
+     * @param frameTime time elapsed since previous frame, in seconds
+     * @param flipRequested whether the player has requested to flip their character during this frame.
+     *                      The flip is applied on the next step, even if it only runs in a later frame.
+     */
+    public void advance(float frameTime, boolean flipRequested) {
+        accumulator += Math.min(frameTime, MAX_FRAME_TIME);
+        flipPending |= flipRequested;
+        while (accumulator >= STEP_TIME) {
+            step(STEP_TIME, flipPending);
+            flipPending = false;
+            accumulator -= STEP_TIME;
+            if (lastGameOverTime == simulationTime) {
+                // the rest of the frame is dropped, so that the new round does not spawn or move bots
+                // before the game has seen the game over
+                accumulator = 0;
+                break;
+            }
+        }
+        interpolationAlpha = accumulator / STEP_TIME;
+    }
+
+    /**
+     * Advance the simulation by a single tick
+     * @param deltaTime time elapsed since previous tick, in seconds
+     * @param flipRequested whether the player has requested to flip their character during this tick
+     */
+    public void step(float deltaTime, boolean flipRequested) {
+        simulationTime += (long) (deltaTime * 1000000000L);
+        profiler.begin(FrameProfiler.Phase.SPAWN);
+        spawnScheduler.update(simulationTime, currentScore, spawner);
+        profiler.end(FrameProfiler.Phase.SPAWN);
+        profiler.begin(FrameProfiler.Phase.INPUT);
+        if (flipRequested) {
+            flipPlayer();
+            if (recording != null) {
+                recording.record(stepCount, InputRecording.FLIP);
+            }
+        }
+        profiler.end(FrameProfiler.Phase.INPUT);
+        // hit check, movement and removal, each timed by its system
+        engine.update(deltaTime);
+        stepCount++;
+        if (recording != null) {
+            recording.setStepCount(stepCount);
+        }
+    }
+
+    public float getPlayerX() {
+        return Mappers.POSITION.get(player).x;
+    }
+
+    public BaseCharacter.Direction getPlayerDirection() {
+        return Mappers.VELOCITY.get(player).getDirection();
+    }
+
+    /**
+     * Reset score before starting a new round
+     */
+    public void resetScore() {
+        currentScore = 0;
+        if (recording != null) {
+            recording.record(stepCount, InputRecording.RESET_SCORE);
+        }
+    }
+
+    /**
+     * Start recording the seed and every input of this simulation, so that the session can be replayed
+     * @return recording that the inputs will be added to
+     */
+    public InputRecording startRecording() {
+        if (stepCount > 0) {
+            throw new IllegalStateException("Recording has to start before the first step");
+        }
+        LevelDimensions dimensions = getDimensions();
+        recording = new InputRecording(seed, dimensions.getLevelWidth(), dimensions.getLevelHeight());
+        return recording;
+    }
+
+    /**
+     * @return simulated time since the latest game over (or the start), in nanoseconds
+     */
+    public long getRoundDuration() {
+        return simulationTime - roundStartTime;
+    }
+
+    /**
+     * @return dimensions of the simulated level
+     */
+    public LevelDimensions getDimensions() {
+        return dimensions != null ? dimensions : GameDimensions.getCurrent();
+    }
+
+    private void processPlayerHit(int slot) {
+        currentScore++;
+        events.playerHit(bots.get(slot).getCharacterType(), currentScore);
+        if (listener != null) {
+            listener.onPlayerHit(bots.get(slot));
+        }
+        bots.markDead(slot);
+    }
+
+    private void gameOver() {
+        if (simulationTime - lastGameOverTime > GAME_OVER_COOLDOWN) {
+            lastGameOverTime = simulationTime;
+            if (currentScore > highScore)
+                highScore = currentScore;
+            bots.clear();
+            // during the engine update, so the entities are only removed once the collision system is done
+            for (int i = botEntities.size() - 1; i >= 0; i--) {
+                engine.removeEntity(botEntities.get(i));
+            }
+            events.gameOver(currentScore, getRoundDuration());
+            if (listener != null) {
+                listener.onGameOver(currentScore);
+            }
+            // the listener may still ask for the seed of the round that has ended
+            roundSeed = random.nextLong();
+            random.setSeed(roundSeed);
+            // TODO apply animations
+            resetPlayer();
+            roundStartTime = simulationTime;
+            roundMaxBotSpeed = 0;
+            spawnScheduler.start(simulationTime, 0);
+        }
+    }
+
+    private Entity createPlayer() {
+        Entity entity = engine.createEntity();
+        entity.add(engine.createComponent(PlayerComponent.class));
+        entity.add(engine.createComponent(PositionComponent.class));
+        entity.add(engine.createComponent(VelocityComponent.class));
+        entity.add(engine.createComponent(ColliderComponent.class));
+        RenderComponent render = engine.createComponent(RenderComponent.class);
+        render.characterType = PLAYER_TYPE;
+        entity.add(render);
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * Bring the player back to the middle of the level, facing a random direction
+     */
+    private void resetPlayer() {
+        BaseCharacter.Direction direction = BaseCharacter.Direction.getRandomDirection(random);
+        LevelDimensions dimensions = getDimensions();
+        Mappers.POSITION.get(player).set(dimensions.getMiddleSpawnX(), dimensions.getCharacterStartingY());
+        float speed = (float) PLAYER_TYPE.getSPEED() * GLOBAL_MOVING_SPEED_PX;
+        Mappers.VELOCITY.get(player).x = direction == BaseCharacter.Direction.LEFT ? -speed : speed;
+        ColliderComponent collider = Mappers.COLLIDER.get(player);
+        collider.width = dimensions.getDefaultCharacterWidth();
+        collider.height = dimensions.getDefaultCharacterHeight();
+        Mappers.RENDER.get(player).flipX = direction != PLAYER_TYPE.getTextureDirection();
+    }
+
+    private void flipPlayer() {
+        VelocityComponent velocity = Mappers.VELOCITY.get(player);
+        velocity.x = -velocity.x;
+        RenderComponent render = Mappers.RENDER.get(player);
+        render.flipX = !render.flipX;
+    }
+
+    /**
+     * Create and remove given number of bot entities at once, so that the engine's pools and entity arrays
+     * already hold that many when bots are spawned during play, and spawning them does not allocate
+     */
+    private void fillBotPools(int count) {
+        for (int i = 0; i < count; i++) {
+            Entity entity = engine.createEntity();
+            entity.add(engine.createComponent(BotComponent.class));
+            engine.addEntity(entity);
+        }
+        engine.removeAllEntities();
+    }
+
+    /**
+     * Spawn a bot as the wave script would at the current score, regardless of the schedule
+     */
+    void spawnNewBot() {
+        spawnNewBot(spawnScheduler.getScript().bandAt(currentScore));
+    }
+
+    private void spawnNewBot(WaveScript.Band band) {
+        BaseCharacter.CharacterType characterType = band.pickType(currentScore, spawnTable, random);
+        float speed = (float) characterType.getSPEED() * band.speedAt(currentScore);
+        roundMaxBotSpeed = Math.max(roundMaxBotSpeed, speed);
+        Entity entity = engine.createEntity();
+        BotComponent bot = engine.createComponent(BotComponent.class);
+        bot.slot = bots.add(characterType, speed);
+        entity.add(bot);
+        engine.addEntity(entity);
+        events.botSpawned(characterType);
+    }
+
+    public WaveScript getWaveScript() {
+        return spawnScheduler.getScript();
+    }
+
+    /**
+     * Replace the script of spawned waves, restarting the schedule from the current time
+     */
+    public void setWaveScript(WaveScript waveScript) {
+        spawnScheduler = new SpawnScheduler(waveScript);
+        spawnScheduler.start(simulationTime, currentScore);
+    }
+}
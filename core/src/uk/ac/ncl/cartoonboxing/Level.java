@@ -1,7 +1,5 @@
 package uk.ac.ncl.cartoonboxing;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.utils.ObjectMap;
 
 /**
@@ -21,38 +19,62 @@ public class Level {
         this(defaultLevelType);
     }
 
+    public LevelType getLevelType() {
+        return levelType;
+    }
+
+    public static LevelType getDefaultLevelType() {
+        return defaultLevelType;
+    }
+
     public enum LevelType{
-        HILLS("Hills", 1, true, textureFromFile("background-mountains.jpg")),
-        MOUNTAINS("Mountains", 2, true, textureFromFile("background-mountains.jpg")),
-        CITY("City", 3, false, textureFromFile("background-mountains.jpg"));
+        HILLS("Hills", 1, true, "background-mountains.jpg"),
+        MOUNTAINS("Mountains", 2, true, "background-mountains.jpg"),
+        CITY("City", 3, false, "background-mountains.jpg");
 
         private final String name;
         private final int levelNumber;
         private final boolean hasClouds;
-        private final Texture background;
+        private final String backgroundFile;
 
-        private static final String textureSubfolder = "backgrounds/";
+        private static final String backgroundDirectory = "backgrounds/";
         private static final ObjectMap<Integer, LevelType> levelNoToTypeMap = new ObjectMap<Integer, LevelType>();
 
-        private static Texture textureFromFile (String filename){
-            return new Texture(Gdx.files.internal(textureSubfolder+filename));
-        }
-
         static {
             for (LevelType type : LevelType.values()){
                 levelNoToTypeMap.put(type.levelNumber, type);
             }
         }
 
-        LevelType(String name, int levelNo, boolean hasClouds, Texture background){
+        LevelType(String name, int levelNo, boolean hasClouds, String backgroundName){
             this.name = name;
             this.levelNumber = levelNo;
             this.hasClouds = hasClouds;
-            this.background = background;
+            this.backgroundFile = backgroundDirectory + backgroundName;
+        }
+
+        /**
+         * Backgrounds are standalone textures, loaded on demand through the {@link BackgroundCache};
+         * levels sharing a background file share its texture
+         * @return path of the level background's image in the assets
+         */
+        public String getBackgroundFile() {
+            return backgroundFile;
+        }
+
+        public int getLevelNumber() {
+            return levelNumber;
         }
 
         public LevelType levelTypeByNumber(int levelNumber){
             return levelNoToTypeMap.get(levelNumber);
         }
+
+        /**
+         * @return level following this one, or null if this is the last level
+         */
+        public LevelType next() {
+            return levelTypeByNumber(levelNumber + 1);
+        }
     }
 }
@@ -0,0 +1,39 @@
+package uk.ac.ncl.cartoonboxing;
+
+import lombok.Getter;
+
+/**
+ * Dimensions and ratios of a level of given size. Instances are immutable, so that simulations of different
+ * level sizes (or many simulations on different threads) can each own theirs, instead of sharing the
+ * screen-wide values in {@link GameDimensions}.
+ * @author Piotr Grela
+ */
+@Getter
+public final class LevelDimensions {
+
+    private static final double SCREEN_TO_CHARACTER_WIDTH_RATIO = 0.2;
+
+    private final int levelWidth;
+    private final int levelHeight;
+    private final int defaultCharacterWidth;
+    private final int defaultCharacterHeight;
+    private final float middleSpawnX;
+    private final float leftmostSpawnX;
+    private final float rightmostSpawnX;
+    private final float characterStartingY;
+
+    /**
+     * @param width level width in pixels
+     * @param height level height in pixels
+     */
+    public LevelDimensions(int width, int height) {
+        levelWidth = width;
+        levelHeight = height;
+        defaultCharacterWidth = (int) (SCREEN_TO_CHARACTER_WIDTH_RATIO * levelWidth);
+        defaultCharacterHeight = (int) (defaultCharacterWidth * 1.5);
+        middleSpawnX = (levelWidth - defaultCharacterWidth) / 2f;
+        leftmostSpawnX = 0;
+        rightmostSpawnX = levelWidth - defaultCharacterWidth;
+        characterStartingY = 0;
+    }
+}
@@ -0,0 +1,63 @@
+package uk.ac.ncl.cartoonboxing;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+
+/**
+ * Screen shown while game assets load. It needs no assets itself: the progress bar is drawn with a ShapeRenderer.
+ * Every frame only spends a fixed time budget on loading, so the screen keeps rendering while textures upload.
+ * Once loading is finished, the game screen replaces it.
+ * @author Piotr Grela
+ */
+public class LoadingScreen extends ScreenAdapter {
+
+    private static final int LOADING_BUDGET_MILLIS = 10;
+    private static final float BAR_WIDTH_RATIO = 0.6f;
+    private static final float BAR_HEIGHT_RATIO = 0.03f;
+
+    private final GameInstance gameInstance;
+    private final OrthographicCamera camera;
+    private final ShapeRenderer shapeRenderer;
+
+    public LoadingScreen(GameInstance gameInstance) {
+        this.gameInstance = gameInstance;
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false);
+        shapeRenderer = new ShapeRenderer();
+    }
+
+    @Override
+    public void render(float delta) {
+        if (gameInstance.assets.update(LOADING_BUDGET_MILLIS)) {
+            gameInstance.setScreen(new Game(gameInstance));
+            dispose();
+            return;
+        }
+        Gdx.gl.glClearColor(0, 0, 0.5f, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        float width = camera.viewportWidth * BAR_WIDTH_RATIO;
+        float height = camera.viewportHeight * BAR_HEIGHT_RATIO;
+        float x = (camera.viewportWidth - width) / 2;
+        float y = (camera.viewportHeight - height) / 2;
+        shapeRenderer.setProjectionMatrix(camera.combined);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(0.2f, 0.2f, 0.2f, 1);
+        shapeRenderer.rect(x, y, width, height);
+        shapeRenderer.setColor(1, 1, 1, 1);
+        shapeRenderer.rect(x, y, width * gameInstance.assets.getProgress(), height);
+        shapeRenderer.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        camera.setToOrtho(false, width, height);
+    }
+
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+}
@@ -0,0 +1,112 @@
+package uk.ac.ncl.cartoonboxing;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.glutils.GLVersion;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Manifest of the GPU compressed textures generated at build time (./gradlew compressTextures), which the game
+ * loads instead of the original PNG and JPEG files where the GPU can sample them. Compressed textures take
+ * a quarter (RGBA8 ETC2 EAC) or an eighth (ETC1) of the memory of decoded images, upload without decoding,
+ * and carry their mipmaps.
+ * Opaque textures are ETC1, usable everywhere (libGDX decodes them itself on GPUs without ETC1), textures with
+ * transparency are ETC2, used only where the GL version guarantees it.
+ * @author Piotr Grela
+ */
+public class TextureManifest {
+
+    public static final String FILE = "compressed/textures.json";
+    public static final String ETC1 = "ETC1";
+    public static final String RGBA8_ETC2_EAC = "RGBA8_ETC2_EAC";
+    public static final String COMPRESSED_EXTENSION = ".zktx";
+    private static final String COMPRESSED_DIRECTORY = "compressed/";
+    /**
+     * Manifest without compressed textures, for GPUs or builds that do not use them
+     */
+    public static final TextureManifest NONE = new TextureManifest();
+
+    private final ObjectMap<String, String> compressedFiles;
+    private final ObjectSet<String> compressed;
+
+    private TextureManifest() {
+        compressedFiles = new ObjectMap<String, String>();
+        compressed = new ObjectSet<String>();
+    }
+
+    /**
+     * @param etc2Supported whether ETC2 textures can be used, see {@link #isEtc2Supported(GLVersion)}
+     * @return manifest of the file, or {@link #NONE} if there is none
+     */
+    public static TextureManifest load(FileHandle file, boolean etc2Supported) {
+        return file.exists() ? parse(file.readString("UTF-8"), etc2Supported) : NONE;
+    }
+
+    static TextureManifest parse(String json, boolean etc2Supported) {
+        TextureManifest manifest = new TextureManifest();
+        for (JsonValue texture : new JsonReader().parse(json).get("textures")) {
+            String format = texture.getString("format");
+            if (format.equals(ETC1) || format.equals(RGBA8_ETC2_EAC) && etc2Supported) {
+                String compressedFile = texture.getString("compressed");
+                manifest.compressedFiles.put(texture.getString("file"), compressedFile);
+                manifest.compressed.add(compressedFile);
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * ETC2 is part of OpenGL ES 3.0 and OpenGL 4.3
+     */
+    public static boolean isEtc2Supported(GLVersion version) {
+        switch (version.getType()) {
+            case GLES:
+                return version.isVersionEqualToOrHigher(3, 0);
+            case OpenGL:
+                return version.isVersionEqualToOrHigher(4, 3);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param file path of a texture or texture atlas in the assets
+     * @return path of its compressed version to load instead, or the path itself if there is none
+     */
+    public String resolve(String file) {
+        return compressedFiles.get(file, file);
+    }
+
+    /**
+     * @param file path resolved by {@link #resolve(String)}
+     */
+    public boolean isCompressed(String file) {
+        return compressed.contains(file);
+    }
+
+    /**
+     * Compressed textures carry their mipmaps, but are loaded without mipmap filtering, since libGDX would
+     * otherwise try to generate mipmaps, which GL does not do for compressed textures
+     */
+    public static void useMipMaps(TextureAtlas atlas) {
+        for (Texture texture : atlas.getTextures()) {
+            texture.setFilter(Texture.TextureFilter.MipMapLinearNearest, Texture.TextureFilter.Linear);
+        }
+    }
+
+    /**
+     * @param file path of a texture or texture atlas in the assets
+     * @return path its compressed version is generated at: images become .zktx files under the compressed directory
+     */
+    public static String compressedPath(String file) {
+        String lowerCase = file.toLowerCase();
+        if (lowerCase.endsWith(".png") || lowerCase.endsWith(".jpg") || lowerCase.endsWith(".jpeg")) {
+            file = file.substring(0, file.lastIndexOf('.')) + COMPRESSED_EXTENSION;
+        }
+        return COMPRESSED_DIRECTORY + file;
+    }
+}
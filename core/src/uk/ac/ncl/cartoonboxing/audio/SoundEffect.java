@@ -0,0 +1,47 @@
+package uk.ac.ncl.cartoonboxing.audio;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+
+import lombok.Getter;
+
+/**
+ * A sound played through the {@link VoiceManager}, with one or more interchangeable variants, and the limits
+ * it is played under. libGDX cannot tell whether a sound is still playing, so every effect declares
+ * how long its voices last.
+ * @author Piotr Grela
+ */
+@Getter
+public class SoundEffect {
+
+    private final Array<Sound> variants;
+    /**
+     * Number of voices of this effect that may play at once
+     */
+    private final int maxVoices;
+    /**
+     * Effects of higher priority may steal voices of lower priority ones when all voices are taken
+     */
+    private final int priority;
+    /**
+     * Time a voice is considered playing for, in nanoseconds, i.e. the length of the longest variant
+     */
+    private final long durationNanos;
+
+    public SoundEffect(Sound sound, int maxVoices, int priority, float durationSeconds) {
+        this(Array.with(sound), maxVoices, priority, durationSeconds);
+    }
+
+    /**
+     * @param variants sounds picked at random every time the effect is played
+     */
+    public SoundEffect(Array<Sound> variants, int maxVoices, int priority, float durationSeconds) {
+        if (variants.size == 0 || maxVoices < 1) {
+            throw new IllegalArgumentException("Sound effect needs a variant and at least one voice");
+        }
+        this.variants = variants;
+        this.maxVoices = maxVoices;
+        this.priority = priority;
+        this.durationNanos = (long) (durationSeconds * 1000000000L);
+    }
+}
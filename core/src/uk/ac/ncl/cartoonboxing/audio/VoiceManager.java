@@ -0,0 +1,201 @@
+package uk.ac.ncl.cartoonboxing.audio;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+
+import lombok.Getter;
+
+/**
+ * Plays sound effects under a fixed number of voices. Gameplay only queues play requests, and
+ * {@link #update(long)} starts them once per frame, so that a burst of hits within a frame (or within the
+ * several simulation steps of a frame) plays an effect once. When an effect has used up its own voices,
+ * its oldest voice is stopped to make room; when all voices are taken, the oldest voice of the lowest priority
+ * not above the request's is stopped instead, and a request that outranks nothing is dropped.
+ * Voices are kept in preallocated arrays, so playing sounds allocates nothing.
+ * @author Piotr Grela
+ */
+public class VoiceManager {
+
+    private final Sound[] voiceSounds;
+    private final SoundEffect[] voiceEffects;
+    private final long[] voiceIds;
+    private final long[] voiceStartTimes;
+    private final Array<SoundEffect> requests;
+    /**
+     * Number of voices currently playing
+     */
+    @Getter
+    private int voiceCount;
+    /**
+     * Highest number of voices played at once
+     */
+    @Getter
+    private int peakVoiceCount;
+    /**
+     * Number of voices stopped early to make room for new ones
+     */
+    @Getter
+    private int stolenCount;
+    /**
+     * Number of requests that could not get a voice
+     */
+    @Getter
+    private int droppedCount;
+    /**
+     * Number of requests merged with a request for the same effect in the same frame
+     */
+    @Getter
+    private int deduplicatedCount;
+
+    /**
+     * @param maxVoices number of voices all effects share
+     */
+    public VoiceManager(int maxVoices) {
+        voiceSounds = new Sound[maxVoices];
+        voiceEffects = new SoundEffect[maxVoices];
+        voiceIds = new long[maxVoices];
+        voiceStartTimes = new long[maxVoices];
+        requests = new Array<SoundEffect>(false, 8);
+    }
+
+    /**
+     * Queue the effect to be played on the next {@link #update(long)}
+     */
+    public void play(SoundEffect effect) {
+        if (requests.contains(effect, true)) {
+            deduplicatedCount++;
+        } else {
+            requests.add(effect);
+        }
+    }
+
+    /**
+     * Release voices that have finished, and start the requests queued since the previous update
+     * @param now current time in nanoseconds
+     */
+    public void update(long now) {
+        for (int voice = voiceCount - 1; voice >= 0; voice--) {
+            if (now - voiceStartTimes[voice] >= voiceEffects[voice].getDurationNanos()) {
+                release(voice);
+            }
+        }
+        for (int i = 0; i < requests.size; i++) {
+            start(requests.get(i), now);
+        }
+        requests.clear();
+    }
+
+    /**
+     * Stop all voices of the effect, and drop its pending request
+     */
+    public void stop(SoundEffect effect) {
+        requests.removeValue(effect, true);
+        for (int voice = voiceCount - 1; voice >= 0; voice--) {
+            if (voiceEffects[voice] == effect) {
+                voiceSounds[voice].stop(voiceIds[voice]);
+                release(voice);
+            }
+        }
+    }
+
+    /**
+     * Stop all voices, and drop pending requests
+     */
+    public void stopAll() {
+        requests.clear();
+        for (int voice = voiceCount - 1; voice >= 0; voice--) {
+            voiceSounds[voice].stop(voiceIds[voice]);
+            release(voice);
+        }
+    }
+
+    /**
+     * @return number of voices of the effect currently playing
+     */
+    public int getVoiceCount(SoundEffect effect) {
+        int count = 0;
+        for (int voice = 0; voice < voiceCount; voice++) {
+            if (voiceEffects[voice] == effect) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getMaxVoices() {
+        return voiceIds.length;
+    }
+
+    private void start(SoundEffect effect, long now) {
+        int victim = -1;
+        if (getVoiceCount(effect) >= effect.getMaxVoices()) {
+            victim = oldestVoice(effect);
+        } else if (voiceCount == voiceIds.length) {
+            victim = lowestPriorityVoice(effect.getPriority());
+            if (victim < 0) {
+                droppedCount++;
+                return;
+            }
+        }
+        if (victim >= 0) {
+            voiceSounds[victim].stop(voiceIds[victim]);
+            release(victim);
+            stolenCount++;
+        }
+        Sound sound = effect.getVariants().random();
+        long id = sound.play();
+        if (id == -1) {
+            // the platform has run out of voices of its own
+            droppedCount++;
+            return;
+        }
+        int voice = voiceCount++;
+        voiceSounds[voice] = sound;
+        voiceEffects[voice] = effect;
+        voiceIds[voice] = id;
+        voiceStartTimes[voice] = now;
+        peakVoiceCount = Math.max(peakVoiceCount, voiceCount);
+    }
+
+    /**
+     * Voices are kept in start order, so the first match is the oldest one
+     */
+    private int oldestVoice(SoundEffect effect) {
+        for (int voice = 0; voice < voiceCount; voice++) {
+            if (voiceEffects[voice] == effect) {
+                return voice;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return oldest voice of the lowest priority not above given one, or -1 if all voices have higher priority
+     */
+    private int lowestPriorityVoice(int maxPriority) {
+        int victim = -1;
+        for (int voice = 0; voice < voiceCount; voice++) {
+            int priority = voiceEffects[voice].getPriority();
+            if (priority <= maxPriority && (victim < 0 || priority < voiceEffects[victim].getPriority())) {
+                victim = voice;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Free the voice, keeping remaining voices in start order
+     */
+    private void release(int voice) {
+        int moved = voiceCount - voice - 1;
+        if (moved > 0) {
+            System.arraycopy(voiceSounds, voice + 1, voiceSounds, voice, moved);
+            System.arraycopy(voiceEffects, voice + 1, voiceEffects, voice, moved);
+            System.arraycopy(voiceIds, voice + 1, voiceIds, voice, moved);
+            System.arraycopy(voiceStartTimes, voice + 1, voiceStartTimes, voice, moved);
+        }
+        voiceCount--;
+        voiceSounds[voiceCount] = null;
+        voiceEffects[voiceCount] = null;
+    }
+}
@@ -1,19 +1,14 @@
 package uk.ac.ncl.cartoonboxing.character;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.FloatArray;
-import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Random;
 
 import lombok.Getter;
 import lombok.Setter;
 import uk.ac.ncl.cartoonboxing.GameDimensions;
+import uk.ac.ncl.cartoonboxing.LevelDimensions;
 
 /**
  * Class defining a base character of the game, including pre-defined character classes,
@@ -21,15 +16,19 @@ import uk.ac.ncl.cartoonboxing.GameDimensions;
  * @author Piotr Grela
  * @version 1.0
  */
-public abstract class BaseCharacter {
+public abstract class BaseCharacter implements Pool.Poolable {
 
     @Getter
-    final CharacterType characterType;
+    CharacterType characterType;
     @Getter
     Direction movingDirection;
     @Getter
     final Rectangle rectangle;
-    private static Random random = new Random();
+    /**
+     * Dimensions of the level the character is in, or null to follow the current screen's {@link GameDimensions}
+     */
+    private final LevelDimensions dimensions;
+    static Random random = new Random();
 
     /**
      * An enum representing moving direction of the character. It provides a method to pick the direction randomly.
@@ -49,6 +48,13 @@ public abstract class BaseCharacter {
         }
 
         public static Direction getRandomDirection() {
+            return getRandomDirection(random);
+        }
+
+        /**
+         * @param random source of randomness, e.g. a seeded one for reproducible games
+         */
+        public static Direction getRandomDirection(Random random) {
             if (random.nextBoolean())
                 return Direction.RIGHT;
             else
@@ -59,83 +65,118 @@ public abstract class BaseCharacter {
      * An enum for pre-defined character types, that include various movement speeds, and names.
      */
     public enum CharacterType {
-        VERY_SLOW_BOI("Very slow boi", 0, 0.15, textureFromFile("boxer-dude-blue.png"), Direction.RIGHT),
-        SLOW_BOI("Slow boi", 1, 0.3, textureFromFile("boxer-dude-yellow.png"), Direction.RIGHT),
-        MEDIOCRE_BOI("Mediocre boi", 2, 0.4, textureFromFile("boxer-dude-green.png"), Direction.RIGHT),
-        FAST_BOI("Fast boi", 3, 0.55, textureFromFile("boxer-dude-red.png"), Direction.RIGHT),
-        VERY_FAST_BOI("Very fast boi", 4, 0.70, textureFromFile("boxer-dude-black.png"), Direction.RIGHT),
-        THE_SPECIMEN("The specimen", 5, 1.0, textureFromFile("boxer-dude-white.png"), Direction.RIGHT);
+        VERY_SLOW_BOI("Very slow boi", 0, 0.15, "boxer-dude-blue", Direction.RIGHT),
+        SLOW_BOI("Slow boi", 1, 0.3, "boxer-dude-yellow", Direction.RIGHT),
+        MEDIOCRE_BOI("Mediocre boi", 2, 0.4, "boxer-dude-green", Direction.RIGHT),
+        FAST_BOI("Fast boi", 3, 0.55, "boxer-dude-red", Direction.RIGHT),
+        VERY_FAST_BOI("Very fast boi", 4, 0.70, "boxer-dude-black", Direction.RIGHT),
+        THE_SPECIMEN("The specimen", 5, 1.0, "boxer-dude-white", Direction.RIGHT);
 
         @Getter
         private final String name;
         @Getter
         private final int ID;
-        @Getter
-        private final Texture texture;
+        private final String regionName;
         @Getter
         private final Direction textureDirection;
 
         @Getter
         private final double SPEED;
-        private static final String TEXTURE_SUBFOLDER = "characters/";
+        private static final String REGION_PREFIX = "characters/";
         @Getter
         private static final CharacterType DEFAULT_CHARACTER_TYPE = CharacterType.VERY_SLOW_BOI;
-        private static final ObjectMap<Double,CharacterType> speedToTypeMap = new ObjectMap<Double, CharacterType>();
+        private static final CharacterType[] typesById = new CharacterType[values().length];
         static {
             for (CharacterType type : CharacterType.values()){
-                speedToTypeMap.put(type.SPEED, type);
+                typesById[type.ID] = type;
             }
         }
 
-        CharacterType(String name, int id, double speed, Texture texture, Direction textureDirection){
+        CharacterType(String name, int id, double speed, String textureName, Direction textureDirection){
             this.name = name;
             this.ID = id;
             this.SPEED = speed;
-            this.texture = texture;
+            this.regionName = REGION_PREFIX + textureName;
             this.textureDirection = textureDirection;
         }
-        public static CharacterType randomType(double maxSpeed) {
-            ArrayList<Double> array = new ArrayList<>();
-            Array<Double> keys = speedToTypeMap.keys().toArray();
-            for (Double speed : keys){
-                if (speed<=maxSpeed){
-                    array.add(speed);
-                }
-            }
-            Double randomSpeed = null;
-            CharacterType type = null;
-            if (!array.isEmpty()) {
-                randomSpeed = array.get(random.nextInt(array.size()));
-                type = speedToTypeMap.get(randomSpeed);
-            }
-            if (type == null) {
-                type = DEFAULT_CHARACTER_TYPE;
-            }
-            return type;
+
+        /**
+         * Characters are drawn from the packed sprite atlas, so types only name their region in it, and can
+         * be used by the simulation without a GL context.
+         * @return name of this type's region in the sprite atlas
+         */
+        public String getRegionName() {
+            return regionName;
         }
 
-        public static CharacterType randomType(){
-            return randomType(1.0);
+        /**
+         * @param maxSpeed threshold that the picked type's speed should not exceed
+         * @return random type, picked uniformly among types not faster than maxSpeed, or default type if there are none
+         */
+        public static CharacterType randomType(double maxSpeed) {
+            return CharacterSpawnTable.getDefault().pickForMaxSpeed(maxSpeed, random);
         }
 
-        private static Texture textureFromFile (String filename){
-            return new Texture(Gdx.files.internal(TEXTURE_SUBFOLDER +filename));
+        public static CharacterType byID(int id) {
+            return typesById[id];
         }
 
+        public static CharacterType randomType(){
+            return randomType(1.0);
+        }
     }
 
     public BaseCharacter(CharacterType characterType){
         this.characterType = characterType;
-        movingDirection = Direction.getRandomDirection();
+        this.dimensions = null;
         rectangle = new Rectangle();
-        rectangle.setY(GameDimensions.getCharacterStartingY());
-        rectangle.width = GameDimensions.getDefaultCharacterWidth();
-        rectangle.height = GameDimensions.getDefaultCharacterHeight();
+        reset();
+    }
+
+    /**
+     * @param dimensions dimensions of the level the character is in
+     * @param random source of randomness for the initial moving direction
+     */
+    public BaseCharacter(CharacterType characterType, LevelDimensions dimensions, Random random){
+        this.characterType = characterType;
+        this.dimensions = dimensions;
+        rectangle = new Rectangle();
+        reset(random);
+    }
+
+    LevelDimensions dimensions() {
+        return dimensions != null ? dimensions : GameDimensions.getCurrent();
+    }
+
+    /**
+     * Bring the character back to its freshly spawned state: re-roll moving direction, and re-apply
+     * current game dimensions and starting coordinates. Character type is kept, so that pooled
+     * characters can be re-typed on obtain.
+     */
+    @Override
+    public void reset() {
+        reset(Direction.random);
+    }
+
+    /**
+     * @param random source of randomness for the new moving direction, e.g. a seeded one for reproducible games
+     * @see #reset()
+     */
+    public void reset(Random random) {
+        movingDirection = Direction.getRandomDirection(random);
+        LevelDimensions dimensions = dimensions();
+        rectangle.setY(dimensions.getCharacterStartingY());
+        rectangle.width = dimensions.getDefaultCharacterWidth();
+        rectangle.height = dimensions.getDefaultCharacterHeight();
         setStartingCoordinates();
     }
 
+    void setCharacterType(CharacterType characterType) {
+        this.characterType = characterType;
+    }
+
     public boolean isTextureNotPositionedCorrectly() {
-        return movingDirection != characterType.textureDirection;
+        return getMovingDirection() != getCharacterType().textureDirection;
     }
 
     public boolean inFrontOf(BaseCharacter character) {
@@ -0,0 +1,157 @@
+package uk.ac.ncl.cartoonboxing.character;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter.CharacterType;
+
+/**
+ * Precomputed tables for picking a random CharacterType for a given difficulty.
+ * A character type is eligible once the difficulty allows its speed (difficulty / DIFFICULTY_SPEED_RATIO &gt;= speed).
+ * Types are sorted by speed, so every difficulty maps to a "tier" - a prefix of eligible types - and every tier
+ * has its own alias table built from per-type spawn weights. A pick is therefore a table lookup, one random
+ * index and one random float: O(1), with no allocation.
+ * If no type is eligible (or all eligible types have zero weight), the default character type is picked.
+ * @author Piotr Grela
+ */
+public class CharacterSpawnTable {
+
+    public static final int DIFFICULTY_SPEED_RATIO = 100;
+    private static final CharacterSpawnTable DEFAULT_TABLE = new CharacterSpawnTable(uniformWeights());
+
+    private final CharacterType[] typesBySpeed;
+    private final int[] tierByDifficulty;
+    // per tier: probability of keeping the rolled column, and the alias used otherwise
+    private final float[][] probability;
+    private final int[][] alias;
+
+    /**
+     * @param weights spawn weight of every character type, indexed by type ID. Weights are relative within
+     *                the set of types eligible at a given difficulty. A type with weight 0 never spawns.
+     */
+    public CharacterSpawnTable(float[] weights) {
+        if (weights.length != CharacterType.values().length) {
+            throw new IllegalArgumentException("Expected " + CharacterType.values().length + " weights, got " + weights.length);
+        }
+        typesBySpeed = CharacterType.values().clone();
+        Arrays.sort(typesBySpeed, new Comparator<CharacterType>() {
+            @Override
+            public int compare(CharacterType a, CharacterType b) {
+                return Double.compare(a.getSPEED(), b.getSPEED());
+            }
+        });
+        int maxDifficulty = (int) Math.ceil(typesBySpeed[typesBySpeed.length - 1].getSPEED() * DIFFICULTY_SPEED_RATIO);
+        tierByDifficulty = new int[maxDifficulty + 1];
+        for (int difficulty = 0; difficulty <= maxDifficulty; difficulty++) {
+            tierByDifficulty[difficulty] = tierForMaxSpeed((double) difficulty / DIFFICULTY_SPEED_RATIO);
+        }
+        probability = new float[typesBySpeed.length + 1][];
+        alias = new int[typesBySpeed.length + 1][];
+        for (int tier = 1; tier <= typesBySpeed.length; tier++) {
+            buildAliasTable(tier, weights);
+        }
+    }
+
+    /**
+     * @return table with the same weight for every character type
+     */
+    public static CharacterSpawnTable getDefault() {
+        return DEFAULT_TABLE;
+    }
+
+    public static float[] uniformWeights() {
+        float[] weights = new float[CharacterType.values().length];
+        Arrays.fill(weights, 1f);
+        return weights;
+    }
+
+    /**
+     * @param difficulty current difficulty, i.e. score
+     * @return random character type that is eligible at given difficulty
+     */
+    public CharacterType pick(int difficulty, Random random) {
+        int index = Math.max(0, Math.min(difficulty, tierByDifficulty.length - 1));
+        return pickFromTier(tierByDifficulty[index], random);
+    }
+
+    /**
+     * @param maxSpeed threshold that the picked type's speed should not exceed
+     * @return random character type not faster than maxSpeed
+     */
+    public CharacterType pickForMaxSpeed(double maxSpeed, Random random) {
+        return pickFromTier(tierForMaxSpeed(maxSpeed), random);
+    }
+
+    private CharacterType pickFromTier(int tier, Random random) {
+        if (alias[tier] == null) {
+            return CharacterType.getDEFAULT_CHARACTER_TYPE();
+        }
+        int column = random.nextInt(tier);
+        return typesBySpeed[random.nextFloat() < probability[tier][column] ? column : alias[tier][column]];
+    }
+
+    /**
+     * @return number of the slowest types whose speed does not exceed maxSpeed
+     */
+    private int tierForMaxSpeed(double maxSpeed) {
+        int tier = 0;
+        while (tier < typesBySpeed.length && typesBySpeed[tier].getSPEED() <= maxSpeed) {
+            tier++;
+        }
+        return tier;
+    }
+
+    /**
+     * Vose's alias method over the first {@code tier} types
+     */
+    private void buildAliasTable(int tier, float[] weights) {
+        double total = 0;
+        for (int i = 0; i < tier; i++) {
+            total += weights[typesBySpeed[i].getID()];
+        }
+        if (total <= 0) {
+            return;
+        }
+        float[] tierProbability = new float[tier];
+        int[] tierAlias = new int[tier];
+        double[] scaled = new double[tier];
+        int[] small = new int[tier];
+        int[] large = new int[tier];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < tier; i++) {
+            scaled[i] = weights[typesBySpeed[i].getID()] * tier / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            tierProbability[less] = (float) scaled[less];
+            tierAlias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // leftovers are 1 up to rounding errors
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            tierProbability[i] = 1f;
+            tierAlias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            tierProbability[i] = 1f;
+            tierAlias[i] = i;
+        }
+        probability[tier] = tierProbability;
+        alias[tier] = tierAlias;
+    }
+}
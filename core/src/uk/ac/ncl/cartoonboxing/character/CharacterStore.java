@@ -0,0 +1,397 @@
+package uk.ac.ncl.cartoonboxing.character;
+
+import com.badlogic.gdx.math.Rectangle;
+
+import java.util.Random;
+
+import lombok.Getter;
+import uk.ac.ncl.cartoonboxing.GameDimensions;
+import uk.ac.ncl.cartoonboxing.LevelDimensions;
+
+/**
+ * Structure-of-arrays storage of hostile characters. Every bot is a slot index into primitive arrays, so that
+ * per-frame movement and bounds checks run as tight loops over contiguous memory, without virtual calls.
+ * The BaseCharacter API is still available for every slot through {@link #get(int)}, which returns a view
+ * of the character currently stored in that slot.
+ * Slots are kept packed. During a step, characters are only marked dead ({@link #markDead(int)}), so that slots stay
+ * valid while the step runs; {@link #compact()} then drops dead and out-of-bounds characters in a single pass at the
+ * end of the step, filling every hole with a character from the end of the store. Slot order is not meaningful:
+ * X order is kept by the broadphase, which is remapped in the same pass.
+ * The store also maintains a {@link SweepBroadphase}, ordering slots along X for collision queries.
+ * X before the latest fixed simulation step is kept alongside X, so that rendering can interpolate between steps.
+ * @author Piotr Grela
+ */
+public class CharacterStore {
+
+    public static final byte DIRECTION_LEFT = -1;
+    public static final byte DIRECTION_RIGHT = 1;
+    private static final int DEFAULT_CAPACITY = 32;
+
+    float[] x;
+    float[] previousX;
+    float[] width;
+    float[] speed;
+    byte[] direction;
+    byte[] typeId;
+    boolean[] dead;
+    float maxWidth;
+    private View[] views;
+    private int[] newSlots;
+    private final Random random;
+    /**
+     * Dimensions of the level, or null to follow the current screen's {@link GameDimensions}
+     */
+    private final LevelDimensions dimensions;
+    @Getter
+    private final SweepBroadphase broadphase;
+    @Getter
+    int size;
+    /**
+     * Number of characters marked dead since the latest compaction
+     */
+    @Getter
+    private int deadCount;
+
+    public CharacterStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CharacterStore(int capacity) {
+        this(capacity, new Random(), null);
+    }
+
+    /**
+     * @param random source of randomness for moving directions, e.g. a seeded one for reproducible games
+     * @param dimensions dimensions of the level, or null to follow the current screen's dimensions
+     */
+    public CharacterStore(int capacity, Random random, LevelDimensions dimensions) {
+        this.random = random;
+        this.dimensions = dimensions;
+        x = new float[capacity];
+        previousX = new float[capacity];
+        width = new float[capacity];
+        speed = new float[capacity];
+        direction = new byte[capacity];
+        typeId = new byte[capacity];
+        dead = new boolean[capacity];
+        views = new View[capacity];
+        for (int i = 0; i < capacity; i++) {
+            views[i] = new View(this, i);
+        }
+        newSlots = new int[capacity];
+        broadphase = new SweepBroadphase(this, capacity);
+    }
+
+    /**
+     * Add a character of given type at its starting coordinates, with a random moving direction
+     * @return slot of the new character
+     */
+    public int add(BaseCharacter.CharacterType characterType) {
+        return add(characterType, (float) characterType.getSPEED());
+    }
+
+    /**
+     * Add a character of given type moving at given speed, rather than its type's
+     * @return slot of the new character
+     */
+    public int add(BaseCharacter.CharacterType characterType, float speed) {
+        if (size == x.length) {
+            resize(Math.max(DEFAULT_CAPACITY, size * 2));
+        }
+        int slot = size++;
+        typeId[slot] = (byte) characterType.getID();
+        this.speed[slot] = speed;
+        respawn(slot);
+        broadphase.insert(slot);
+        return slot;
+    }
+
+    /**
+     * Re-roll moving direction of the character in the slot, and move it to the matching level edge
+     */
+    void respawn(int slot) {
+        LevelDimensions dimensions = dimensions();
+        width[slot] = dimensions.getDefaultCharacterWidth();
+        maxWidth = Math.max(maxWidth, width[slot]);
+        if (BaseCharacter.Direction.getRandomDirection(random) == BaseCharacter.Direction.LEFT) {
+            direction[slot] = DIRECTION_LEFT;
+            x[slot] = dimensions.getLevelWidth();
+        } else {
+            direction[slot] = DIRECTION_RIGHT;
+            x[slot] = -width[slot];
+        }
+        previousX[slot] = x[slot];
+    }
+
+    /**
+     * Mark the character in the slot for removal at the next {@link #compact()}. The slot stays valid until then.
+     */
+    public void markDead(int slot) {
+        if (!dead[slot]) {
+            dead[slot] = true;
+            deadCount++;
+        }
+    }
+
+    public boolean isDead(int slot) {
+        return dead[slot];
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            dead[i] = false;
+        }
+        deadCount = 0;
+        size = 0;
+        broadphase.clear();
+    }
+
+    /**
+     * Remember current positions as the positions before the next step, for {@link #getInterpolatedX(int, float)}
+     */
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, previousX, 0, size);
+    }
+
+    /**
+     * Move all characters along their moving direction, and restore broadphase order
+     * @param distance distance travelled in this step by a character of speed 1.0
+     */
+    public void move(float distance) {
+        final float[] x = this.x;
+        final float[] speed = this.speed;
+        final byte[] direction = this.direction;
+        for (int i = 0, n = size; i < n; i++) {
+            x[i] += direction[i] * speed[i] * distance;
+        }
+        broadphase.sort();
+    }
+
+    /**
+     * Remove all characters that are marked dead or have left the level, in a single pass.
+     * Every removed slot is filled with the last kept character, so at most one character is moved per removal.
+     * @return number of removed characters
+     */
+    public int compact() {
+        final float levelWidth = dimensions().getLevelWidth();
+        final int[] newSlots = this.newSlots;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            if (!isRemovable(low, levelWidth)) {
+                newSlots[low] = low++;
+                continue;
+            }
+            newSlots[low] = -1;
+            dead[low] = false;
+            high--;
+            while (high > low && isRemovable(high, levelWidth)) {
+                newSlots[high] = -1;
+                dead[high] = false;
+                high--;
+            }
+            if (high > low) {
+                move(high, low);
+                newSlots[high] = low++;
+            }
+        }
+        int removed = size - low;
+        if (removed > 0) {
+            broadphase.remap(newSlots);
+        }
+        size = low;
+        deadCount = 0;
+        return removed;
+    }
+
+    /**
+     * Follow a character through the latest {@link #compact()}, e.g. to update slots kept elsewhere
+     * @param slot slot of the character before the compaction
+     * @return slot of the character after the compaction, or -1 if it has been removed
+     */
+    public int getCompactedSlot(int slot) {
+        return newSlots[slot];
+    }
+
+    private boolean isRemovable(int slot, float levelWidth) {
+        return dead[slot] || x[slot] < -width[slot] || x[slot] > levelWidth;
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        previousX[to] = previousX[from];
+        width[to] = width[from];
+        speed[to] = speed[from];
+        direction[to] = direction[from];
+        typeId[to] = typeId[from];
+        dead[to] = dead[from];
+    }
+
+    /**
+     * @return whether the character in the slot overlaps horizontally with given interval.
+     * All characters share the same Y and height, so a horizontal overlap means the models overlap.
+     */
+    public boolean overlaps(int slot, float otherX, float otherWidth) {
+        return x[slot] < otherX + otherWidth && x[slot] + width[slot] > otherX;
+    }
+
+    /**
+     * @param otherX X of the other character
+     * @param otherDirection moving direction of the other character
+     * @return whether the character in the slot is in front of the other character, i.e. the other character faces it
+     * @see BaseCharacter#inFrontOf(BaseCharacter)
+     */
+    public boolean inFrontOf(int slot, float otherX, BaseCharacter.Direction otherDirection) {
+        return otherX > x[slot] && otherDirection == BaseCharacter.Direction.LEFT
+            || otherX < x[slot] && otherDirection == BaseCharacter.Direction.RIGHT;
+    }
+
+    LevelDimensions dimensions() {
+        return dimensions != null ? dimensions : GameDimensions.getCurrent();
+    }
+
+    public float getX(int slot) {
+        return x[slot];
+    }
+
+    /**
+     * @param alpha fraction of a simulation step elapsed since the latest step, from 0 to 1
+     * @return X of the character in the slot, interpolated between its positions before and after the latest step
+     */
+    public float getInterpolatedX(int slot, float alpha) {
+        return previousX[slot] + (x[slot] - previousX[slot]) * alpha;
+    }
+
+    public BaseCharacter.CharacterType getCharacterType(int slot) {
+        return BaseCharacter.CharacterType.byID(typeId[slot]);
+    }
+
+    /**
+     * @return BaseCharacter view of the character currently stored in the slot.
+     * The view follows the slot, not the character, so it should not be kept across removals.
+     */
+    public HostileCharacter get(int slot) {
+        return views[slot];
+    }
+
+    private void resize(int capacity) {
+        x = copyOf(x, capacity);
+        previousX = copyOf(previousX, capacity);
+        width = copyOf(width, capacity);
+        speed = copyOf(speed, capacity);
+        direction = copyOf(direction, capacity);
+        typeId = copyOf(typeId, capacity);
+        dead = copyOf(dead, capacity);
+        View[] newViews = new View[capacity];
+        System.arraycopy(views, 0, newViews, 0, views.length);
+        for (int i = views.length; i < capacity; i++) {
+            newViews[i] = new View(this, i);
+        }
+        views = newViews;
+        newSlots = new int[capacity];
+        broadphase.ensureCapacity(capacity);
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static byte[] copyOf(byte[] array, int capacity) {
+        byte[] copy = new byte[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static boolean[] copyOf(boolean[] array, int capacity) {
+        boolean[] copy = new boolean[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    /**
+     * HostileCharacter backed by a slot of the store. All reads and writes go straight to the store arrays.
+     */
+    static class View extends HostileCharacter {
+
+        private final CharacterStore store;
+        private final int slot;
+
+        View(CharacterStore store, int slot) {
+            super(CharacterType.getDEFAULT_CHARACTER_TYPE(), store.dimensions(), store.random);
+            this.store = store;
+            this.slot = slot;
+        }
+
+        @Override
+        public float getX() {
+            return store.x[slot];
+        }
+
+        @Override
+        void setX(float x) {
+            store.x[slot] = x;
+        }
+
+        @Override
+        float getWidth() {
+            return store.width[slot];
+        }
+
+        @Override
+        public CharacterType getCharacterType() {
+            return CharacterType.byID(store.typeId[slot]);
+        }
+
+        /**
+         * The slot's speed keeps its ratio to the type's speed, so that a speed given to
+         * {@link CharacterStore#add(CharacterType, float)} is not lost
+         */
+        @Override
+        void setCharacterType(CharacterType characterType) {
+            float multiplier = (float) (store.speed[slot] / getCharacterType().getSPEED());
+            store.typeId[slot] = (byte) characterType.getID();
+            store.speed[slot] = (float) (multiplier * characterType.getSPEED());
+        }
+
+        /**
+         * Moves at the slot's speed, as {@link CharacterStore#move(float)} does, rather than the type's
+         */
+        @Override
+        public void updateX(int globalSpeed, float deltaTime) {
+            store.x[slot] += store.direction[slot] * store.speed[slot] * globalSpeed * deltaTime;
+        }
+
+        @Override
+        public Direction getMovingDirection() {
+            return store.direction[slot] == DIRECTION_LEFT ? Direction.LEFT : Direction.RIGHT;
+        }
+
+        @Override
+        public Rectangle getRectangle() {
+            rectangle.x = store.x[slot];
+            LevelDimensions dimensions = store.dimensions();
+            rectangle.y = dimensions.getCharacterStartingY();
+            rectangle.width = store.width[slot];
+            rectangle.height = dimensions.getDefaultCharacterHeight();
+            return rectangle;
+        }
+
+        @Override
+        public void reset() {
+            // called by the BaseCharacter constructor before the view is bound to its slot
+            if (store != null) {
+                store.respawn(slot);
+            }
+        }
+
+        /**
+         * The direction is re-rolled with the store's own source of randomness
+         */
+        @Override
+        public void reset(Random random) {
+            reset();
+        }
+    }
+}
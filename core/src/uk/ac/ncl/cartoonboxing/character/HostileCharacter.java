@@ -1,17 +1,21 @@
 package uk.ac.ncl.cartoonboxing.character;
 
-import uk.ac.ncl.cartoonboxing.GameDimensions;
+import java.util.Random;
 
-public class HostileCharacter extends BaseCharacter {
+import uk.ac.ncl.cartoonboxing.LevelDimensions;
 
-    private static final int DIFFICULTY_SPEED_RATIO = 100;
+public class HostileCharacter extends BaseCharacter {
 
     public HostileCharacter(CharacterType characterType) {
         super(characterType);
     }
 
+    public HostileCharacter(CharacterType characterType, LevelDimensions dimensions, Random random) {
+        super(characterType, dimensions, random);
+    }
+
     private float getRightmostSpawnX() {
-        return GameDimensions.getLevelWidth();
+        return dimensions().getLevelWidth();
     }
 
     private float getLeftmostSpawnX() {
@@ -23,12 +27,29 @@ public class HostileCharacter extends BaseCharacter {
      * @return BaseCharacter with random CharacterType
      */
     public static HostileCharacter generateRandomCharacter(int difficulty){
-        return new HostileCharacter(CharacterType.randomType((float)difficulty/ DIFFICULTY_SPEED_RATIO));
+        return new HostileCharacter(randomTypeForDifficulty(difficulty));
+    }
+
+    /**
+     * @param difficulty defines a threshold that a generated random character type should not exceed
+     * @return random CharacterType suitable for given difficulty
+     */
+    public static CharacterType randomTypeForDifficulty(int difficulty) {
+        return randomTypeForDifficulty(difficulty, CharacterSpawnTable.getDefault());
+    }
+
+    /**
+     * @param difficulty defines a threshold that a generated random character type should not exceed
+     * @param spawnTable table defining spawn weights of character types
+     * @return random CharacterType suitable for given difficulty
+     */
+    public static CharacterType randomTypeForDifficulty(int difficulty, CharacterSpawnTable spawnTable) {
+        return spawnTable.pick(difficulty, random);
     }
 
     @Override
     public boolean isOutOfBounds() {
-        return !((getX() >= - getWidth()) && (getX() <= GameDimensions.getLevelWidth()));
+        return !((getX() >= - getWidth()) && (getX() <= dimensions().getLevelWidth()));
     }
 
     @Override
@@ -1,6 +1,8 @@
 package uk.ac.ncl.cartoonboxing.character;
 
-import uk.ac.ncl.cartoonboxing.GameDimensions;
+import java.util.Random;
+
+import uk.ac.ncl.cartoonboxing.LevelDimensions;
 
 /**
  * This class defines a character controller by the user
@@ -18,6 +20,14 @@ public class PlayerCharacter extends BaseCharacter {
         this(DEFAULT_CHARACTER);
     }
 
+    /**
+     * @param dimensions dimensions of the level the character is in
+     * @param random source of randomness for the initial moving direction
+     */
+    public PlayerCharacter(LevelDimensions dimensions, Random random) {
+        super(DEFAULT_CHARACTER, dimensions, random);
+    }
+
     public void flipCharacter(){
         movingDirection = Direction.getOppositeDirection(movingDirection);
     }
@@ -27,13 +37,13 @@ public class PlayerCharacter extends BaseCharacter {
      */
     @Override
     public boolean isOutOfBounds() {
-        return !((getX() >= 0)&&(getX() <= GameDimensions.getLevelWidth() - getWidth()));
+        return !((getX() >= 0)&&(getX() <= dimensions().getLevelWidth() - getWidth()));
     }
 
     @Override
     void setStartingCoordinates() {
         // set X-coordinate to the middle of the screen
-        setX(GameDimensions.getMiddleSpawnX());
+        setX(dimensions().getMiddleSpawnX());
     }
 
     @Override
@@ -41,12 +51,12 @@ public class PlayerCharacter extends BaseCharacter {
         if (getX() < 0)
             setX(0);
         else
-            setX(GameDimensions.getLevelWidth() - getWidth());
+            setX(dimensions().getLevelWidth() - getWidth());
         return true;
     }
 
     public boolean isAtBoundary() {
         return movingDirection == Direction.LEFT && getX() == 0 ||
-            movingDirection == Direction.RIGHT && getX() == GameDimensions.getLevelWidth() - getWidth();
+            movingDirection == Direction.RIGHT && getX() == dimensions().getLevelWidth() - getWidth();
     }
 }
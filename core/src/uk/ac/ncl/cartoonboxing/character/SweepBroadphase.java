@@ -0,0 +1,152 @@
+package uk.ac.ncl.cartoonboxing.character;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Sort-and-sweep broadphase over the slots of a {@link CharacterStore}.
+ * All characters share the same Y and height, so collisions are a 1D problem: the broadphase keeps slots
+ * ordered by X, and interval queries binary-search to the first candidate and stop at the first slot past
+ * the interval, for O(log n + k) per query. Characters move coherently between frames, so the order is
+ * repaired with an insertion sort that costs O(n + number of characters that swapped places).
+ * @author Piotr Grela
+ */
+public class SweepBroadphase {
+
+    /**
+     * Callback for pairs of overlapping characters
+     */
+    public interface OverlapListener {
+        void onOverlap(int slotA, int slotB);
+    }
+
+    private final CharacterStore store;
+    private int[] order;
+    private int size;
+
+    SweepBroadphase(CharacterStore store, int capacity) {
+        this.store = store;
+        order = new int[capacity];
+    }
+
+    void ensureCapacity(int capacity) {
+        if (order.length < capacity) {
+            int[] newOrder = new int[capacity];
+            System.arraycopy(order, 0, newOrder, 0, size);
+            order = newOrder;
+        }
+    }
+
+    /**
+     * Insert a newly added slot at its position along X
+     */
+    void insert(int slot) {
+        int index = lowerBound(store.x[slot]);
+        System.arraycopy(order, index, order, index + 1, size - index);
+        order[index] = slot;
+        size++;
+    }
+
+    /**
+     * Apply a store compaction in a single pass
+     * @param newSlots new slot of every old slot, or -1 if the character in the slot has been removed
+     */
+    void remap(int[] newSlots) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int s = newSlots[order[i]];
+            if (s >= 0) {
+                order[kept++] = s;
+            }
+        }
+        size = kept;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Restore X order after characters have moved
+     */
+    void sort() {
+        final float[] x = store.x;
+        final int[] order = this.order;
+        for (int i = 1; i < size; i++) {
+            int slot = order[i];
+            float key = x[slot];
+            int j = i - 1;
+            while (j >= 0 && x[order[j]] > key) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = slot;
+        }
+    }
+
+    /**
+     * Collect slots of all characters overlapping with given horizontal interval
+     * @param result array the overlapping slots are added to, in X order
+     * @return number of overlapping slots found
+     */
+    public int query(float minX, float width, IntArray result) {
+        final float[] x = store.x;
+        final float[] widths = store.width;
+        float maxX = minX + width;
+        int found = 0;
+        for (int i = lowerBound(minX - store.maxWidth); i < size; i++) {
+            int slot = order[i];
+            if (x[slot] >= maxX) {
+                break;
+            }
+            if (x[slot] + widths[slot] > minX) {
+                result.add(slot);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Report every pair of characters overlapping with each other, sweeping once along X
+     */
+    public void findOverlappingPairs(OverlapListener listener) {
+        final float[] x = store.x;
+        final float[] widths = store.width;
+        for (int i = 0; i < size; i++) {
+            int slot = order[i];
+            float maxX = x[slot] + widths[slot];
+            for (int j = i + 1; j < size && x[order[j]] < maxX; j++) {
+                listener.onOverlap(slot, order[j]);
+            }
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return slot at given position along X
+     */
+    public int get(int index) {
+        return order[index];
+    }
+
+    /**
+     * @return index of the first slot in order whose X is not lower than given value
+     */
+    private int lowerBound(float value) {
+        final float[] x = store.x;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (x[order[mid]] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,23 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+import uk.ac.ncl.cartoonboxing.character.CharacterStore;
+
+/**
+ * Marks a bot. Bots are the bulk of the entities and are moved, checked and removed every step, so their position,
+ * speed, direction and type live in a slot of the simulation's {@link CharacterStore} rather than in components,
+ * and the systems run over the store's arrays. The {@link BoundsSystem} keeps the slot up to date when
+ * the store is compacted.
+ * @author Piotr Grela
+ */
+public class BotComponent implements Component, Pool.Poolable {
+
+    public int slot;
+
+    @Override
+    public void reset() {
+        slot = -1;
+    }
+}
@@ -0,0 +1,80 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+
+import uk.ac.ncl.cartoonboxing.GameSimulation;
+import uk.ac.ncl.cartoonboxing.character.CharacterStore;
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfiler;
+
+/**
+ * Keeps the player within the level, and removes bots that are marked dead or have left the level.
+ * Bots are removed from the store in a single compaction pass; every bot entity then follows its character
+ * to its new slot, or is removed if its character was. Removed entities and their components go back
+ * to the engine's pools.
+ * @author Piotr Grela
+ */
+public class BoundsSystem extends IteratingSystem {
+
+    public static final int PRIORITY = MovementSystem.PRIORITY + 1;
+
+    private final GameSimulation simulation;
+    private ImmutableArray<Entity> bots;
+    private float levelWidth;
+
+    public BoundsSystem(GameSimulation simulation) {
+        super(Mappers.PLAYERS, PRIORITY);
+        this.simulation = simulation;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        super.addedToEngine(engine);
+        bots = engine.getEntitiesFor(Mappers.BOTS);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        super.removedFromEngine(engine);
+        bots = null;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        FrameProfiler profiler = simulation.getProfiler();
+        profiler.begin(FrameProfiler.Phase.REMOVAL);
+        levelWidth = simulation.getDimensions().getLevelWidth();
+        super.update(deltaTime);
+        removeBots();
+        profiler.end(FrameProfiler.Phase.REMOVAL);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PositionComponent position = Mappers.POSITION.get(entity);
+        float maxX = levelWidth - Mappers.COLLIDER.get(entity).width;
+        if (position.x < 0) {
+            position.x = 0;
+        } else if (position.x > maxX) {
+            position.x = maxX;
+        }
+    }
+
+    private void removeBots() {
+        CharacterStore store = simulation.getBots();
+        if (store.compact() == 0) {
+            return;
+        }
+        // backwards, so that entities removed right away, outside of engine updates, are not skipped
+        for (int i = bots.size() - 1; i >= 0; i--) {
+            Entity entity = bots.get(i);
+            BotComponent bot = Mappers.BOT.get(entity);
+            bot.slot = store.getCompactedSlot(bot.slot);
+            if (bot.slot < 0) {
+                getEngine().removeEntity(entity);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Axis-aligned box of an entity, from its position, for collisions and level bounds
+ * @author Piotr Grela
+ */
+public class ColliderComponent implements Component, Pool.Poolable {
+
+    public float width;
+    public float height;
+
+    @Override
+    public void reset() {
+        width = 0;
+        height = 0;
+    }
+}
@@ -0,0 +1,68 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.utils.IntArray;
+
+import uk.ac.ncl.cartoonboxing.GameSimulation;
+import uk.ac.ncl.cartoonboxing.character.CharacterStore;
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfiler;
+
+/**
+ * Checks if the player's collider overlaps with any bot. If so, it checks who's "hit" who: a bot the player
+ * faces is hit, a bot behind the player catches them.
+ * Only bots around the player along X are examined, using the store's broadphase.
+ * Hit bots are only marked dead by the simulation, and removed by the {@link BoundsSystem} later in the step.
+ * @author Piotr Grela
+ */
+public class CollisionSystem extends IteratingSystem {
+
+    public static final int PRIORITY = 0;
+
+    /**
+     * Outcomes of collisions, which the simulation turns into scoring and game overs
+     */
+    public interface Listener {
+        void onBotHit(int slot);
+
+        void onPlayerCaught();
+    }
+
+    private final GameSimulation simulation;
+    private final Listener listener;
+    private final IntArray hitSlots;
+
+    public CollisionSystem(GameSimulation simulation, Listener listener) {
+        super(Mappers.PLAYERS, PRIORITY);
+        this.simulation = simulation;
+        this.listener = listener;
+        hitSlots = new IntArray(false, 8);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        FrameProfiler profiler = simulation.getProfiler();
+        profiler.begin(FrameProfiler.Phase.HIT_CHECK);
+        super.update(deltaTime);
+        profiler.end(FrameProfiler.Phase.HIT_CHECK);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PositionComponent position = Mappers.POSITION.get(entity);
+        CharacterStore bots = simulation.getBots();
+        hitSlots.clear();
+        if (bots.getBroadphase().query(position.x, Mappers.COLLIDER.get(entity).width, hitSlots) == 0) {
+            return;
+        }
+        VelocityComponent velocity = Mappers.VELOCITY.get(entity);
+        for (int i = 0; i < hitSlots.size; i++) {
+            if (bots.inFrontOf(hitSlots.get(i), position.x, velocity.getDirection())) {
+                listener.onBotHit(hitSlots.get(i));
+            } else {
+                listener.onPlayerCaught();
+                return;
+            }
+        }
+    }
+}
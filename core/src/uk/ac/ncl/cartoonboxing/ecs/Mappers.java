@@ -0,0 +1,33 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Family;
+
+/**
+ * Component mappers and families shared by all systems. Ashley registers component types and families
+ * in static maps that are not thread-safe, so all of them are created here, once, when the class is initialized;
+ * afterwards simulations on different threads only read those maps.
+ * @author Piotr Grela
+ */
+public final class Mappers {
+
+    public static final ComponentMapper<PositionComponent> POSITION = ComponentMapper.getFor(PositionComponent.class);
+    public static final ComponentMapper<VelocityComponent> VELOCITY = ComponentMapper.getFor(VelocityComponent.class);
+    public static final ComponentMapper<ColliderComponent> COLLIDER = ComponentMapper.getFor(ColliderComponent.class);
+    public static final ComponentMapper<RenderComponent> RENDER = ComponentMapper.getFor(RenderComponent.class);
+    public static final ComponentMapper<BotComponent> BOT = ComponentMapper.getFor(BotComponent.class);
+
+    @SuppressWarnings("unchecked")
+    public static final Family MOVING = Family.all(PositionComponent.class, VelocityComponent.class).get();
+    @SuppressWarnings("unchecked")
+    public static final Family PLAYERS = Family.all(PlayerComponent.class, PositionComponent.class,
+        VelocityComponent.class, ColliderComponent.class).get();
+    @SuppressWarnings("unchecked")
+    public static final Family BOTS = Family.all(BotComponent.class).get();
+    @SuppressWarnings("unchecked")
+    public static final Family RENDERED = Family.all(PositionComponent.class, ColliderComponent.class,
+        RenderComponent.class).get();
+
+    private Mappers() {
+    }
+}
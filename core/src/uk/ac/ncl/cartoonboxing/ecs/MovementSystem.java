@@ -0,0 +1,46 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.systems.IteratingSystem;
+
+import uk.ac.ncl.cartoonboxing.GameSimulation;
+import uk.ac.ncl.cartoonboxing.character.CharacterStore;
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfiler;
+
+/**
+ * Moves entities by their velocity, and bots along their direction at their speed, in a single loop over the store.
+ * Positions before the step are remembered for interpolated drawing.
+ * @author Piotr Grela
+ */
+public class MovementSystem extends IteratingSystem {
+
+    public static final int PRIORITY = CollisionSystem.PRIORITY + 1;
+
+    private final GameSimulation simulation;
+
+    public MovementSystem(GameSimulation simulation) {
+        super(Mappers.MOVING, PRIORITY);
+        this.simulation = simulation;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        FrameProfiler profiler = simulation.getProfiler();
+        profiler.begin(FrameProfiler.Phase.MOVEMENT);
+        super.update(deltaTime);
+        CharacterStore bots = simulation.getBots();
+        bots.savePreviousPositions();
+        bots.move(GameSimulation.GLOBAL_MOVING_SPEED_PX * deltaTime);
+        profiler.end(FrameProfiler.Phase.MOVEMENT);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PositionComponent position = Mappers.POSITION.get(entity);
+        VelocityComponent velocity = Mappers.VELOCITY.get(entity);
+        position.previousX = position.x;
+        position.previousY = position.y;
+        position.x += velocity.x * deltaTime;
+        position.y += velocity.y * deltaTime;
+    }
+}
@@ -0,0 +1,11 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Marks the entity controlled by the user: it punches bots it faces, is caught by bots behind it,
+ * and is kept within the level rather than removed when it reaches an edge
+ * @author Piotr Grela
+ */
+public class PlayerComponent implements Component {
+}
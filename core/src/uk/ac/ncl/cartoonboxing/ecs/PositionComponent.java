@@ -0,0 +1,30 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Position of an entity's bottom left corner, together with its value before the latest simulation step,
+ * for drawing the entity interpolated between steps
+ * @author Piotr Grela
+ */
+public class PositionComponent implements Component, Pool.Poolable {
+
+    public float x;
+    public float y;
+    public float previousX;
+    public float previousY;
+
+    /**
+     * Place the entity, with no movement to interpolate from
+     */
+    public void set(float x, float y) {
+        this.x = previousX = x;
+        this.y = previousY = y;
+    }
+
+    @Override
+    public void reset() {
+        set(0, 0);
+    }
+}
@@ -0,0 +1,26 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+
+/**
+ * Sprite an entity is drawn with. Only the character type is kept, so the simulation does not depend on
+ * loaded textures; the {@link RenderSystem} looks up the matching atlas region.
+ * @author Piotr Grela
+ */
+public class RenderComponent implements Component, Pool.Poolable {
+
+    public BaseCharacter.CharacterType characterType;
+    /**
+     * Whether the sprite is mirrored horizontally
+     */
+    public boolean flipX;
+
+    @Override
+    public void reset() {
+        characterType = null;
+        flipX = false;
+    }
+}
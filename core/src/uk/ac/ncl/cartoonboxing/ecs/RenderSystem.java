@@ -0,0 +1,79 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+
+import uk.ac.ncl.cartoonboxing.GameAssets;
+import uk.ac.ncl.cartoonboxing.character.CharacterStore;
+import uk.ac.ncl.cartoonboxing.character.HostileCharacter;
+
+/**
+ * Draws rendered entities, then bots from their slots of the store, interpolated between simulation steps.
+ * It is not processed by engine updates, which run on the fixed simulation step, but drawn once per frame
+ * with {@link #draw(Batch, float)}.
+ * @author Piotr Grela
+ */
+public class RenderSystem extends EntitySystem {
+
+    public static final int PRIORITY = BoundsSystem.PRIORITY + 1;
+
+    private final GameAssets assets;
+    private final CharacterStore store;
+    private ImmutableArray<Entity> entities;
+    private ImmutableArray<Entity> bots;
+
+    public RenderSystem(GameAssets assets, CharacterStore store) {
+        super(PRIORITY);
+        this.assets = assets;
+        this.store = store;
+        setProcessing(false);
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(Mappers.RENDERED);
+        bots = engine.getEntitiesFor(Mappers.BOTS);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        entities = null;
+        bots = null;
+    }
+
+    /**
+     * @param alpha fraction of a simulation step elapsed since the latest step
+     */
+    public void draw(Batch batch, float alpha) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            PositionComponent position = Mappers.POSITION.get(entity);
+            ColliderComponent collider = Mappers.COLLIDER.get(entity);
+            RenderComponent render = Mappers.RENDER.get(entity);
+            float x = position.previousX + (position.x - position.previousX) * alpha;
+            float y = position.previousY + (position.y - position.previousY) * alpha;
+            draw(batch, assets.getCharacterRegion(render.characterType), x, y, collider.width, collider.height,
+                render.flipX);
+        }
+        for (int i = 0; i < bots.size(); i++) {
+            int slot = Mappers.BOT.get(bots.get(i)).slot;
+            HostileCharacter bot = store.get(slot);
+            Rectangle rectangle = bot.getRectangle();
+            draw(batch, assets.getCharacterRegion(bot.getCharacterType()), store.getInterpolatedX(slot, alpha),
+                rectangle.y, rectangle.width, rectangle.height, bot.isTextureNotPositionedCorrectly());
+        }
+    }
+
+    /**
+     * Draw the region, mirrored within the same box if flipped
+     */
+    private static void draw(Batch batch, TextureRegion region, float x, float y, float width, float height,
+        boolean flip) {
+        batch.draw(region, flip ? x + width : x, y, flip ? -width : width, height);
+    }
+}
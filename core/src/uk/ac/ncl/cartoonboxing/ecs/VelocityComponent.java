@@ -0,0 +1,29 @@
+package uk.ac.ncl.cartoonboxing.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+
+/**
+ * Velocity of an entity, in pixels per second
+ * @author Piotr Grela
+ */
+public class VelocityComponent implements Component, Pool.Poolable {
+
+    public float x;
+    public float y;
+
+    /**
+     * @return direction of the horizontal velocity
+     */
+    public BaseCharacter.Direction getDirection() {
+        return x < 0 ? BaseCharacter.Direction.LEFT : BaseCharacter.Direction.RIGHT;
+    }
+
+    @Override
+    public void reset() {
+        x = 0;
+        y = 0;
+    }
+}
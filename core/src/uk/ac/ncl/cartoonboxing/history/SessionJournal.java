@@ -0,0 +1,320 @@
+package uk.ac.ncl.cartoonboxing.history;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import lombok.Getter;
+
+/**
+ * Persistent history of finished sessions: an append-only journal of fixed-size {@link SessionRecord}s, and an index
+ * of the top K sessions by score for the leaderboard. Both files are memory-mapped and written by a single
+ * background thread, so appending a session only updates the in-memory leaderboard and queues the write;
+ * the render thread never waits for storage.
+ * <p>
+ * Journal file: magic "CBJN", version, number of records (long), then the records. The count is updated after
+ * the record it covers, so a record interrupted by a crash is ignored and overwritten by the next one.
+ * Index file: magic "CBTX", version, K, number of top records, number of journal records the index covers (long),
+ * then the top records, best first. Opening the journal reads the index and the journal's header only, plus any
+ * journal records the index does not cover yet (normally none), so it takes O(K) however long the journal is.
+ * The journal is scanned in full only if the index is missing or damaged.
+ * @author Piotr Grela
+ */
+public class SessionJournal implements Disposable {
+
+    public static final int DEFAULT_TOP_SIZE = 10;
+    static final String JOURNAL_FILE_NAME = "sessions.journal";
+    static final String INDEX_FILE_NAME = "sessions.top";
+    private static final int JOURNAL_MAGIC = 0x43424a4e;
+    private static final int INDEX_MAGIC = 0x43425458;
+    private static final int VERSION = 1;
+    private static final int JOURNAL_HEADER_SIZE = 16;
+    private static final int INDEX_HEADER_SIZE = 24;
+    /**
+     * Number of records mapped at once for appending
+     */
+    private static final int CHUNK_RECORDS = 4096;
+
+    private final File journalFile;
+    private final File indexFile;
+    private final SessionRecord[] top;
+    private int topCount;
+    /**
+     * Number of sessions in the journal, including those still being written
+     */
+    @Getter
+    private long sessionCount;
+    private final AsyncExecutor executor;
+    // only accessed by the executor's thread
+    private final JournalWriter writer;
+    /**
+     * First error the writer thread has run into, after which nothing more is written
+     */
+    @Getter
+    private volatile IOException writeError;
+
+    public SessionJournal(File directory) throws IOException {
+        this(directory, DEFAULT_TOP_SIZE);
+    }
+
+    /**
+     * Open the journal in given directory, creating it if there is none
+     * @param topSize number of best sessions kept in the index
+     */
+    public SessionJournal(File directory, int topSize) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create directory " + directory);
+        }
+        journalFile = new File(directory, JOURNAL_FILE_NAME);
+        indexFile = new File(directory, INDEX_FILE_NAME);
+        top = new SessionRecord[topSize];
+        sessionCount = readJournalCount();
+        long indexedCount = readIndex();
+        if (indexedCount > sessionCount) {
+            // index of a journal that has since been lost or truncated
+            topCount = 0;
+            indexedCount = 0;
+        }
+        if (indexedCount < sessionCount) {
+            readJournalRecords(indexedCount, sessionCount);
+        }
+        writer = new JournalWriter();
+        executor = new AsyncExecutor(1, "SessionJournal");
+        if (indexedCount < sessionCount) {
+            submitIndex(topSnapshot(), sessionCount);
+        }
+    }
+
+    /**
+     * Add a finished session to the leaderboard, and queue it for writing
+     */
+    public void append(final SessionRecord record) {
+        final long count = ++sessionCount;
+        insertIntoTop(record);
+        final SessionRecord[] snapshot = topSnapshot();
+        executor.submit(new AsyncTask<Void>() {
+            @Override
+            public Void call() {
+                if (writeError == null) {
+                    try {
+                        writer.append(record, count);
+                        writer.writeIndex(snapshot, count);
+                    } catch (IOException e) {
+                        writeError = e;
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * @return number of sessions on the leaderboard, at most K
+     */
+    public int getTopCount() {
+        return topCount;
+    }
+
+    /**
+     * @param rank 0 for the best session
+     */
+    public SessionRecord getTop(int rank) {
+        return top[rank];
+    }
+
+    /**
+     * @return best score of all sessions, or 0 if there are none
+     */
+    public int getBestScore() {
+        return topCount > 0 ? top[0].getScore() : 0;
+    }
+
+    /**
+     * Write all queued sessions and close the files. Blocks until the writes are done.
+     */
+    @Override
+    public void dispose() {
+        executor.submit(new AsyncTask<Void>() {
+            @Override
+            public Void call() {
+                writer.close();
+                return null;
+            }
+        });
+        executor.dispose();
+    }
+
+    private void insertIntoTop(SessionRecord record) {
+        int rank = topCount;
+        while (rank > 0 && record.ranksAbove(top[rank - 1])) {
+            rank--;
+        }
+        if (rank == top.length) {
+            return;
+        }
+        int moved = Math.min(topCount, top.length - 1) - rank;
+        System.arraycopy(top, rank, top, rank + 1, moved);
+        top[rank] = record;
+        topCount = Math.min(topCount + 1, top.length);
+    }
+
+    private boolean isInTop(SessionRecord record) {
+        for (int i = 0; i < topCount; i++) {
+            if (top[i].isSameSession(record)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SessionRecord[] topSnapshot() {
+        SessionRecord[] snapshot = new SessionRecord[topCount];
+        System.arraycopy(top, 0, snapshot, 0, topCount);
+        return snapshot;
+    }
+
+    private void submitIndex(final SessionRecord[] snapshot, final long count) {
+        executor.submit(new AsyncTask<Void>() {
+            @Override
+            public Void call() {
+                try {
+                    writer.writeIndex(snapshot, count);
+                } catch (IOException e) {
+                    writeError = e;
+                }
+                return null;
+            }
+        });
+    }
+
+    private long readJournalCount() throws IOException {
+        if (journalFile.length() < JOURNAL_HEADER_SIZE) {
+            return 0;
+        }
+        ByteBuffer header = read(journalFile, 0, JOURNAL_HEADER_SIZE);
+        if (header.getInt(0) != JOURNAL_MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not a session journal: " + journalFile);
+        }
+        // records past the end of the file have not been written completely
+        return Math.min(header.getLong(8), (journalFile.length() - JOURNAL_HEADER_SIZE) / SessionRecord.SIZE);
+    }
+
+    /**
+     * @return number of journal records the index covers, or 0 if there is no valid index
+     */
+    private long readIndex() throws IOException {
+        if (indexFile.length() < INDEX_HEADER_SIZE) {
+            return 0;
+        }
+        ByteBuffer header = read(indexFile, 0, INDEX_HEADER_SIZE);
+        int count = header.getInt(12);
+        if (header.getInt(0) != INDEX_MAGIC || header.getInt(4) != VERSION || header.getInt(8) != top.length
+            || count < 0 || count > top.length || indexFile.length() < INDEX_HEADER_SIZE + count * SessionRecord.SIZE) {
+            return 0;
+        }
+        ByteBuffer records = read(indexFile, INDEX_HEADER_SIZE, count * SessionRecord.SIZE);
+        for (int i = 0; i < count; i++) {
+            top[i] = SessionRecord.read(records, i * SessionRecord.SIZE);
+        }
+        topCount = count;
+        return header.getLong(16);
+    }
+
+    private void readJournalRecords(long from, long to) throws IOException {
+        for (long start = from; start < to; start += CHUNK_RECORDS) {
+            int count = (int) Math.min(CHUNK_RECORDS, to - start);
+            ByteBuffer records = read(journalFile, JOURNAL_HEADER_SIZE + start * SessionRecord.SIZE, count * SessionRecord.SIZE);
+            for (int i = 0; i < count; i++) {
+                SessionRecord record = SessionRecord.read(records, i * SessionRecord.SIZE);
+                // the index may have been written with records past the count it covers
+                if (!isInTop(record)) {
+                    insertIntoTop(record);
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer read(File file, long position, int size) throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            FileChannel channel = input.getChannel();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+            }
+            return buffer;
+        } finally {
+            StreamUtils.closeQuietly(input);
+        }
+    }
+
+    /**
+     * Owner of the mapped files, used only on the executor's thread
+     */
+    private class JournalWriter {
+
+        private RandomAccessFile journal;
+        private MappedByteBuffer journalHeader;
+        private MappedByteBuffer chunk;
+        private long chunkStart;
+        private RandomAccessFile index;
+        private MappedByteBuffer indexBuffer;
+
+        void append(SessionRecord record, long count) throws IOException {
+            if (journal == null) {
+                journal = new RandomAccessFile(journalFile, "rw");
+                journalHeader = journal.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, JOURNAL_HEADER_SIZE);
+                journalHeader.putInt(0, JOURNAL_MAGIC);
+                journalHeader.putInt(4, VERSION);
+            }
+            long position = count - 1;
+            if (chunk == null || position < chunkStart || position >= chunkStart + CHUNK_RECORDS) {
+                chunkStart = position - position % CHUNK_RECORDS;
+                chunk = journal.getChannel().map(FileChannel.MapMode.READ_WRITE,
+                    JOURNAL_HEADER_SIZE + chunkStart * SessionRecord.SIZE, CHUNK_RECORDS * SessionRecord.SIZE);
+            }
+            record.write(chunk, (int) (position - chunkStart) * SessionRecord.SIZE);
+            journalHeader.putLong(8, count);
+        }
+
+        void writeIndex(SessionRecord[] snapshot, long journalCount) throws IOException {
+            if (index == null) {
+                index = new RandomAccessFile(indexFile, "rw");
+                indexBuffer = index.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    INDEX_HEADER_SIZE + top.length * SessionRecord.SIZE);
+                indexBuffer.putInt(0, INDEX_MAGIC);
+                indexBuffer.putInt(4, VERSION);
+                indexBuffer.putInt(8, top.length);
+            }
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i].write(indexBuffer, INDEX_HEADER_SIZE + i * SessionRecord.SIZE);
+            }
+            indexBuffer.putInt(12, snapshot.length);
+            indexBuffer.putLong(16, journalCount);
+        }
+
+        void close() {
+            if (journal != null) {
+                chunk.force();
+                journalHeader.force();
+                StreamUtils.closeQuietly(journal);
+                journal = null;
+            }
+            if (index != null) {
+                indexBuffer.force();
+                StreamUtils.closeQuietly(index);
+                index = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package uk.ac.ncl.cartoonboxing.history;
+
+import java.nio.ByteBuffer;
+
+import lombok.Getter;
+
+/**
+ * A finished session (one round from start or game over to the next game over), as stored in the
+ * {@link SessionJournal}. Records are immutable, so they can be handed over to the journal's writer thread.
+ * @author Piotr Grela
+ */
+@Getter
+public final class SessionRecord {
+
+    /**
+     * Size of a record in the journal and index files, in bytes
+     */
+    static final int SIZE = 32;
+
+    private final int score;
+    private final int durationMillis;
+    private final float maxBotSpeed;
+    /**
+     * Seed of the session's randomness, drawn anew for every round by the simulation
+     */
+    private final long seed;
+    /**
+     * Wall clock time the session has ended at, in milliseconds since the epoch
+     */
+    private final long endTime;
+
+    public SessionRecord(int score, int durationMillis, float maxBotSpeed, long seed, long endTime) {
+        this.score = score;
+        this.durationMillis = durationMillis;
+        this.maxBotSpeed = maxBotSpeed;
+        this.seed = seed;
+        this.endTime = endTime;
+    }
+
+    /**
+     * @return whether this session ranks above the other one: higher score first, earlier session on a tie
+     */
+    public boolean ranksAbove(SessionRecord other) {
+        return score > other.score || score == other.score && endTime < other.endTime;
+    }
+
+    /**
+     * @return whether both records describe the same session
+     */
+    boolean isSameSession(SessionRecord other) {
+        return score == other.score && durationMillis == other.durationMillis && seed == other.seed
+            && endTime == other.endTime;
+    }
+
+    void write(ByteBuffer buffer, int position) {
+        buffer.putInt(position, score);
+        buffer.putInt(position + 4, durationMillis);
+        buffer.putFloat(position + 8, maxBotSpeed);
+        buffer.putInt(position + 12, 0);
+        buffer.putLong(position + 16, seed);
+        buffer.putLong(position + 24, endTime);
+    }
+
+    static SessionRecord read(ByteBuffer buffer, int position) {
+        return new SessionRecord(buffer.getInt(position), buffer.getInt(position + 4), buffer.getFloat(position + 8),
+            buffer.getLong(position + 16), buffer.getLong(position + 24));
+    }
+}
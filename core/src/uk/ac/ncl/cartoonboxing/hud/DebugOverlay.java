@@ -0,0 +1,91 @@
+package uk.ac.ncl.cartoonboxing.hud;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import uk.ac.ncl.cartoonboxing.audio.VoiceManager;
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfiler;
+import uk.ac.ncl.cartoonboxing.profiling.RingHistogram;
+
+/**
+ * Debug overlay listing p50/p95/p99/max of every profiled phase, total frame time, entity count and garbage
+ * collections over the profiler's history, and voice counts of the sound effects. The text is laid out again
+ * only a few times per second, so that the overlay does not noticeably change the frame times it displays.
+ * @author Piotr Grela
+ */
+public class DebugOverlay {
+
+    private static final long REFRESH_INTERVAL = 500000000L;
+    private static final float FONT_SIZE = 28;
+    private static final float OUTLINE_WIDTH = 4;
+    private static final float MARGIN = 50;
+
+    private final DistanceFieldFonts fonts;
+    private final FontStyle style;
+    private final BitmapFontCache cache;
+    private final StringBuilder textBuilder;
+    private final FrameProfiler profiler;
+    private final VoiceManager voiceManager;
+    private long lastRefreshTime;
+
+    public DebugOverlay(DistanceFieldFonts fonts, FrameProfiler profiler, VoiceManager voiceManager) {
+        this.fonts = fonts;
+        this.profiler = profiler;
+        this.voiceManager = voiceManager;
+        style = fonts.createStyle(FONT_SIZE, Color.GREEN, Color.BLACK, OUTLINE_WIDTH);
+        cache = style.getFont().newFontCache();
+        cache.setColor(style.getColor());
+        textBuilder = new StringBuilder(512);
+    }
+
+    /**
+     * Draw the overlay below the score, refreshing its text if it is due
+     */
+    public void draw(Batch batch, int levelHeight) {
+        long now = TimeUtils.nanoTime();
+        if (now - lastRefreshTime > REFRESH_INTERVAL) {
+            lastRefreshTime = now;
+            layoutText(levelHeight);
+        }
+        fonts.begin(batch);
+        fonts.apply(batch, style);
+        cache.draw(batch);
+        fonts.end(batch);
+    }
+
+    private void layoutText(int levelHeight) {
+        textBuilder.setLength(0);
+        textBuilder.append("us: p50 / p95 / p99 / max\n");
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            appendTimes(phase.name(), profiler.getPhaseHistogram(phase));
+        }
+        appendTimes("FRAME", profiler.getFrameHistogram());
+        RingHistogram entities = profiler.getEntityHistogram();
+        textBuilder.append("ENTITIES ").append(entities.getPercentile(50))
+            .append(" / max ").append(entities.getMax()).append('\n');
+        RingHistogram collections = profiler.getGcHistogram();
+        long collectionCount = 0;
+        for (int i = 0; i < collections.getSize(); i++) {
+            collectionCount += collections.get(i);
+        }
+        textBuilder.append("GC ").append(collectionCount)
+            .append(" in ").append(collections.getSize()).append(" frames\n");
+        textBuilder.append("VOICES ").append(voiceManager.getVoiceCount())
+            .append(" / peak ").append(voiceManager.getPeakVoiceCount())
+            .append(" / max ").append(voiceManager.getMaxVoices())
+            .append(", stolen ").append(voiceManager.getStolenCount())
+            .append(", dropped ").append(voiceManager.getDroppedCount())
+            .append(", merged ").append(voiceManager.getDeduplicatedCount());
+        cache.setText(textBuilder, MARGIN, levelHeight - MARGIN * 5);
+    }
+
+    private void appendTimes(String name, RingHistogram histogram) {
+        textBuilder.append(name).append(' ')
+            .append(histogram.getPercentile(50) / 1000).append(" / ")
+            .append(histogram.getPercentile(95) / 1000).append(" / ")
+            .append(histogram.getPercentile(99) / 1000).append(" / ")
+            .append(histogram.getMax() / 1000).append('\n');
+    }
+}
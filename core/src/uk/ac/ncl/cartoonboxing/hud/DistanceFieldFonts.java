@@ -0,0 +1,139 @@
+package uk.ac.ncl.cartoonboxing.hud;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * A single pre-built signed distance field font atlas (see DistanceFieldFontGenerator in the tools module),
+ * drawn with a shader that supports arbitrary sizes, colours and outlines from the one texture.
+ * Text has to be drawn between {@link #begin(Batch)} and {@link #end(Batch)}, with {@link #apply(Batch, FontStyle)}
+ * called whenever the style changes.
+ * @author Piotr Grela
+ */
+public class DistanceFieldFonts implements Disposable {
+
+    public static final String DEFAULT_FONT_FILE = "fonts/OpenComicFont-sdf.fnt";
+    // must match the parameters the atlas has been generated with
+    private static final float BASE_SIZE = 64;
+    private static final float SPREAD = 16;
+
+    private static final String VERTEX_SHADER = ""
+        + "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+        + "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+        + "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+        + "uniform mat4 u_projTrans;\n"
+        + "varying vec4 v_color;\n"
+        + "varying vec2 v_texCoords;\n"
+        + "void main() {\n"
+        + "    v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+        + "    v_color.a = v_color.a * (255.0/254.0);\n"
+        + "    v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+        + "    gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+        + "}\n";
+
+    private static final String FRAGMENT_SHADER = ""
+        + "#ifdef GL_ES\n"
+        + "precision mediump float;\n"
+        + "#endif\n"
+        + "uniform sampler2D u_texture;\n"
+        + "uniform float u_smoothing;\n"
+        + "uniform float u_outlineDistance;\n"
+        + "uniform vec4 u_outlineColor;\n"
+        + "varying vec4 v_color;\n"
+        + "varying vec2 v_texCoords;\n"
+        + "void main() {\n"
+        + "    float distance = texture2D(u_texture, v_texCoords).a;\n"
+        + "    float fill = smoothstep(0.5 - u_smoothing, 0.5 + u_smoothing, distance);\n"
+        + "    float alpha = smoothstep(u_outlineDistance - u_smoothing, u_outlineDistance + u_smoothing, distance);\n"
+        + "    vec4 color = mix(u_outlineColor, v_color, fill);\n"
+        + "    gl_FragColor = vec4(color.rgb, color.a * alpha);\n"
+        + "}\n";
+
+    private final BitmapFont.BitmapFontData fontData;
+    private final TextureRegion region;
+    private final ShaderProgram shader;
+
+    /**
+     * @param font the distance field font, as loaded by the AssetManager with linear filtering.
+     *             Its texture stays owned by whoever loaded it.
+     */
+    public DistanceFieldFonts(BitmapFont font) {
+        fontData = font.getData();
+        region = font.getRegion();
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Distance field shader failed to compile: " + shader.getLog());
+        }
+    }
+
+    /**
+     * @param size font size in pixels
+     * @param outlineWidth outline width in pixels, 0 for no outline
+     */
+    public FontStyle createStyle(float size, Color color, Color outlineColor, float outlineWidth) {
+        BitmapFont font = new BitmapFont(copyFontData(), region, false);
+        return new FontStyle(font, BASE_SIZE, SPREAD, size, color, outlineColor, outlineWidth);
+    }
+
+    /**
+     * The font file is parsed once, by the AssetManager. Every style's font has a copy of the loaded metrics,
+     * as the scale is applied to them, but shares the glyphs, which are not scaled.
+     */
+    private BitmapFont.BitmapFontData copyFontData() {
+        BitmapFont.BitmapFontData data = new BitmapFont.BitmapFontData();
+        data.name = fontData.name;
+        data.imagePaths = fontData.imagePaths;
+        data.fontFile = fontData.fontFile;
+        data.flipped = fontData.flipped;
+        data.padTop = fontData.padTop;
+        data.padRight = fontData.padRight;
+        data.padBottom = fontData.padBottom;
+        data.padLeft = fontData.padLeft;
+        data.lineHeight = fontData.lineHeight;
+        data.capHeight = fontData.capHeight;
+        data.ascent = fontData.ascent;
+        data.descent = fontData.descent;
+        data.down = fontData.down;
+        data.blankLineScale = fontData.blankLineScale;
+        data.scaleX = fontData.scaleX;
+        data.scaleY = fontData.scaleY;
+        data.markupEnabled = fontData.markupEnabled;
+        data.cursorX = fontData.cursorX;
+        System.arraycopy(fontData.glyphs, 0, data.glyphs, 0, fontData.glyphs.length);
+        data.missingGlyph = fontData.missingGlyph;
+        data.spaceXadvance = fontData.spaceXadvance;
+        data.xHeight = fontData.xHeight;
+        data.breakChars = fontData.breakChars;
+        data.xChars = fontData.xChars;
+        data.capChars = fontData.capChars;
+        return data;
+    }
+
+    public void begin(Batch batch) {
+        batch.setShader(shader);
+    }
+
+    /**
+     * Set up the shader for drawing text in given style, flushing text drawn so far
+     */
+    public void apply(Batch batch, FontStyle style) {
+        batch.flush();
+        shader.setUniformf("u_smoothing", style.getSmoothing());
+        shader.setUniformf("u_outlineDistance", style.getOutlineDistance());
+        shader.setUniformf("u_outlineColor", style.getOutlineColor());
+    }
+
+    public void end(Batch batch) {
+        batch.setShader(null);
+    }
+
+    @Override
+    public void dispose() {
+        shader.dispose();
+    }
+}
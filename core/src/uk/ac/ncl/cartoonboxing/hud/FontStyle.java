@@ -0,0 +1,57 @@
+package uk.ac.ncl.cartoonboxing.hud;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+
+import lombok.Getter;
+
+/**
+ * Size, colour and outline of text drawn with the distance field font.
+ * Every style has its own BitmapFont (sharing the atlas texture and glyphs), as the scale is kept in font data.
+ * @author Piotr Grela
+ */
+public class FontStyle {
+
+    @Getter
+    private final BitmapFont font;
+    @Getter
+    private final Color outlineColor;
+    private final float outlineWidth;
+    private final float baseSize;
+    private final float spread;
+    @Getter
+    private float size;
+    @Getter
+    private float smoothing;
+    @Getter
+    private float outlineDistance;
+
+    FontStyle(BitmapFont font, float baseSize, float spread, float size, Color color, Color outlineColor, float outlineWidth) {
+        this.font = font;
+        this.baseSize = baseSize;
+        this.spread = spread;
+        this.outlineColor = new Color(outlineColor);
+        this.outlineWidth = outlineWidth;
+        font.setColor(color);
+        font.setUseIntegerPositions(false);
+        setSize(size);
+    }
+
+    /**
+     * Scale the font to given pixel size, and update edge smoothing and outline thresholds of the distance field,
+     * which are expressed in distance field units, so they depend on scale
+     */
+    public void setSize(float size) {
+        this.size = size;
+        float scale = size / baseSize;
+        font.getData().setScale(scale);
+        // distance field value changes by 0.5 over spread texels, i.e. over spread * scale pixels on screen
+        float valuePerPixel = 0.5f / (spread * scale);
+        smoothing = Math.min(0.25f, 0.5f * valuePerPixel);
+        outlineDistance = Math.max(smoothing, 0.5f - outlineWidth * valuePerPixel);
+    }
+
+    public Color getColor() {
+        return font.getColor();
+    }
+}
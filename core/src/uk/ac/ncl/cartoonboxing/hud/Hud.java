@@ -0,0 +1,171 @@
+package uk.ac.ncl.cartoonboxing.hud;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.utils.Align;
+
+import lombok.Getter;
+
+/**
+ * Heads-up display of the game: score and welcome, pause and game over messages.
+ * Text is laid out into BitmapFontCaches only when something it depends on changes (score, state or screen size),
+ * so that frames with an unchanged HUD only submit the cached vertices, without building Strings or GlyphLayouts.
+ * All messages are drawn with the distance field font, in styles sized relative to the level height.
+ * @author Piotr Grela
+ */
+public class Hud {
+
+    /**
+     * Which set of messages is displayed
+     */
+    public enum State {
+        WELCOME,
+        PLAYING,
+        PAUSED,
+        GAME_OVER
+    }
+
+    private static final String WELCOME_TEXT = "Welcome to Cartoon Boxing!\nTap anywhere to start";
+    private static final String PAUSED_TEXT = "Game paused\nTap anywhere to resume";
+    private static final String GAME_OVER_TEXT = "Game over!";
+    private static final float SCORE_MARGIN = 50;
+    private static final float SCORE_FONT_SIZE = 80;
+    private static final float SCORE_OUTLINE_WIDTH = 20;
+    private static final float MESSAGE_OUTLINE_WIDTH = 8;
+
+    private final DistanceFieldFonts fonts;
+    private final FontStyle scoreStyle;
+    private final FontStyle welcomeStyle;
+    private final FontStyle gameOverStyle;
+    private final FontStyle scoreAchievedStyle;
+    private final FontStyle gamePausedStyle;
+    private final BitmapFontCache scoreCache;
+    private final BitmapFontCache welcomeCache;
+    private final BitmapFontCache gameOverCache;
+    private final BitmapFontCache scoreAchievedCache;
+    private final BitmapFontCache gamePausedCache;
+    private final StringBuilder textBuilder;
+
+    @Getter
+    private State state;
+    private int score;
+    private int highScore;
+    private int levelWidth;
+    private int levelHeight;
+    private boolean scoreDirty;
+    private boolean layoutDirty;
+    @Getter
+    private int layoutCount;
+
+    public Hud(DistanceFieldFonts fonts, int levelWidth, int levelHeight) {
+        this.fonts = fonts;
+        scoreStyle = fonts.createStyle(SCORE_FONT_SIZE, Color.WHITE, Color.BLACK, SCORE_OUTLINE_WIDTH);
+        welcomeStyle = fonts.createStyle(levelHeight / 20f, Color.RED, Color.BLACK, MESSAGE_OUTLINE_WIDTH);
+        gameOverStyle = fonts.createStyle(levelHeight / 10f, Color.RED, Color.BLACK, MESSAGE_OUTLINE_WIDTH);
+        scoreAchievedStyle = fonts.createStyle(levelHeight / 20f, Color.YELLOW, Color.BLACK, MESSAGE_OUTLINE_WIDTH);
+        gamePausedStyle = fonts.createStyle(levelHeight / 20f, Color.BLUE, Color.BLACK, MESSAGE_OUTLINE_WIDTH);
+        scoreCache = newCache(scoreStyle);
+        welcomeCache = newCache(welcomeStyle);
+        gameOverCache = newCache(gameOverStyle);
+        scoreAchievedCache = newCache(scoreAchievedStyle);
+        gamePausedCache = newCache(gamePausedStyle);
+        textBuilder = new StringBuilder(64);
+        state = State.WELCOME;
+        resize(levelWidth, levelHeight);
+    }
+
+    public void setState(State state) {
+        if (this.state != state) {
+            this.state = state;
+            scoreDirty = true;
+        }
+    }
+
+    public void setScore(int score, int highScore) {
+        if (this.score != score || this.highScore != highScore) {
+            this.score = score;
+            this.highScore = highScore;
+            scoreDirty = true;
+        }
+    }
+
+    public void resize(int levelWidth, int levelHeight) {
+        if (this.levelWidth != levelWidth || this.levelHeight != levelHeight) {
+            this.levelWidth = levelWidth;
+            this.levelHeight = levelHeight;
+            layoutDirty = true;
+            scoreDirty = true;
+        }
+    }
+
+    private static BitmapFontCache newCache(FontStyle style) {
+        BitmapFontCache cache = style.getFont().newFontCache();
+        cache.setColor(style.getColor());
+        return cache;
+    }
+
+    private void draw(Batch batch, BitmapFontCache cache, FontStyle style) {
+        fonts.apply(batch, style);
+        cache.draw(batch);
+    }
+
+    /**
+     * Draw messages for current state, laying them out again first if needed
+     */
+    public void draw(Batch batch) {
+        if (layoutDirty) {
+            layoutStaticText();
+        }
+        if (scoreDirty) {
+            layoutScoreText();
+        }
+        fonts.begin(batch);
+        switch (state) {
+            case WELCOME:
+                draw(batch, welcomeCache, welcomeStyle);
+                break;
+            case PAUSED:
+                draw(batch, gamePausedCache, gamePausedStyle);
+                draw(batch, scoreCache, scoreStyle);
+                break;
+            case PLAYING:
+                draw(batch, scoreCache, scoreStyle);
+                break;
+            case GAME_OVER:
+                draw(batch, gameOverCache, gameOverStyle);
+                draw(batch, scoreAchievedCache, scoreAchievedStyle);
+                break;
+        }
+        fonts.end(batch);
+    }
+
+    private void layoutStaticText() {
+        welcomeStyle.setSize(levelHeight / 20f);
+        gameOverStyle.setSize(levelHeight / 10f);
+        scoreAchievedStyle.setSize(levelHeight / 20f);
+        gamePausedStyle.setSize(levelHeight / 20f);
+        welcomeCache.setText(WELCOME_TEXT, 0, (float) levelHeight / 2, levelWidth, Align.center, true);
+        gamePausedCache.setText(PAUSED_TEXT, 0, (float) levelHeight / 2, levelWidth, Align.center, true);
+        gameOverCache.setText(GAME_OVER_TEXT, 0, (float) levelHeight * 2 / 3, levelWidth, Align.center, true);
+        layoutDirty = false;
+        layoutCount++;
+    }
+
+    /**
+     * Only the score text shown in current state is laid out. Every state change marks the score as dirty,
+     * so the other one is laid out once it becomes visible.
+     */
+    private void layoutScoreText() {
+        textBuilder.setLength(0);
+        if (state == State.GAME_OVER) {
+            textBuilder.append("Your score: ").append(score).append("\nTap anywhere to try again");
+            scoreAchievedCache.setText(textBuilder, 0, (float) levelHeight / 3, levelWidth, Align.center, true);
+        } else {
+            textBuilder.append("Score: ").append(score).append("\nHigh Score: ").append(highScore);
+            scoreCache.setText(textBuilder, SCORE_MARGIN, levelHeight - SCORE_MARGIN);
+        }
+        scoreDirty = false;
+        layoutCount++;
+    }
+}
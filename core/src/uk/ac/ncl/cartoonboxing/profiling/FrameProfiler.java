@@ -0,0 +1,187 @@
+package uk.ac.ncl.cartoonboxing.profiling;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Per-phase frame time breakdown. Code under measurement brackets every phase with {@link #begin(Phase)} and
+ * {@link #end(Phase)}; times of a phase add up over the frame (the simulation may step several times per frame),
+ * and {@link #endFrame(int)} records them into per-phase ring histograms, together with the frame's total time,
+ * entity count and number of garbage collections.
+ * Recording only uses System.nanoTime and preallocated arrays, and a disabled profiler does nothing at all,
+ * apart from passing frames and phases on to its {@link GameEvents}, which record independently of the profiler.
+ * @author Piotr Grela
+ */
+public class FrameProfiler {
+
+    /**
+     * Measured phases of a frame
+     */
+    public enum Phase {
+        CLEAR,
+        DRAW,
+        SPAWN,
+        HIT_CHECK,
+        INPUT,
+        REMOVAL,
+        MOVEMENT
+    }
+
+    /**
+     * Source of the number of garbage collections so far, which is platform specific
+     */
+    public interface GcCounter {
+        /**
+         * @return number of garbage collections since start, or -1 if unknown
+         */
+        long getCollectionCount();
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    /**
+     * Profiler that never records, for code that is not being profiled
+     */
+    public static final FrameProfiler NONE = new FrameProfiler(0);
+
+    private final RingHistogram[] phaseHistograms;
+    @Getter
+    private final RingHistogram frameHistogram;
+    @Getter
+    private final RingHistogram entityHistogram;
+    @Getter
+    private final RingHistogram gcHistogram;
+    private final long[] phaseStarts;
+    private final long[] phaseTimes;
+    private long frameStart;
+    private long lastGcCount;
+    @Getter
+    private boolean enabled;
+    @Setter
+    private GcCounter gcCounter;
+    /**
+     * Recorder that frames and phases are reported to, whether or not the profiler is enabled
+     */
+    @Setter
+    private GameEvents events = GameEvents.NONE;
+
+    /**
+     * @param historySize number of latest frames kept, or 0 for a profiler that cannot be enabled
+     */
+    public FrameProfiler(int historySize) {
+        phaseHistograms = new RingHistogram[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseHistograms[i] = new RingHistogram(historySize);
+        }
+        frameHistogram = new RingHistogram(historySize);
+        entityHistogram = new RingHistogram(historySize);
+        gcHistogram = new RingHistogram(historySize);
+        phaseStarts = new long[PHASES.length];
+        phaseTimes = new long[PHASES.length];
+    }
+
+    /**
+     * Start or stop recording. Enabling starts from an empty history.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled && frameHistogram.getCapacity() > 0) {
+            for (RingHistogram histogram : phaseHistograms) {
+                histogram.clear();
+            }
+            frameHistogram.clear();
+            entityHistogram.clear();
+            gcHistogram.clear();
+            lastGcCount = collectionCount();
+            this.enabled = true;
+            startFrame();
+        } else if (!enabled) {
+            this.enabled = false;
+        }
+    }
+
+    public void beginFrame() {
+        events.frameBegin();
+        if (enabled) {
+            startFrame();
+        }
+    }
+
+    private void startFrame() {
+        frameStart = System.nanoTime();
+        for (int i = 0; i < phaseTimes.length; i++) {
+            phaseTimes[i] = 0;
+        }
+    }
+
+    public void begin(Phase phase) {
+        events.phaseBegin(phase);
+        if (enabled) {
+            phaseStarts[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public void end(Phase phase) {
+        if (enabled) {
+            phaseTimes[phase.ordinal()] += System.nanoTime() - phaseStarts[phase.ordinal()];
+        }
+        events.phaseEnd(phase);
+    }
+
+    /**
+     * Record the frame that has just finished
+     * @param entityCount number of characters in the frame
+     */
+    public void endFrame(int entityCount) {
+        events.frameEnd(entityCount);
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < phaseTimes.length; i++) {
+            phaseHistograms[i].add(phaseTimes[i]);
+        }
+        frameHistogram.add(System.nanoTime() - frameStart);
+        entityHistogram.add(entityCount);
+        long gcCount = collectionCount();
+        gcHistogram.add(gcCount >= 0 && lastGcCount >= 0 ? gcCount - lastGcCount : 0);
+        lastGcCount = gcCount;
+    }
+
+    public RingHistogram getPhaseHistogram(Phase phase) {
+        return phaseHistograms[phase.ordinal()];
+    }
+
+    /**
+     * Write the recorded frames, oldest first, one row per frame.
+     * Times are in microseconds, gc is the number of collections during the frame.
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("frame");
+        for (Phase phase : PHASES) {
+            writer.write(',');
+            writer.write(phase.name().toLowerCase(Locale.ROOT));
+            writer.write("_us");
+        }
+        writer.write(",total_us,entities,gc\n");
+        for (int frame = 0; frame < frameHistogram.getSize(); frame++) {
+            writer.write(Integer.toString(frame));
+            for (RingHistogram histogram : phaseHistograms) {
+                writer.write(',');
+                writer.write(Long.toString(histogram.get(frame) / 1000));
+            }
+            writer.write(',');
+            writer.write(Long.toString(frameHistogram.get(frame) / 1000));
+            writer.write(',');
+            writer.write(Long.toString(entityHistogram.get(frame)));
+            writer.write(',');
+            writer.write(Long.toString(gcHistogram.get(frame)));
+            writer.write('\n');
+        }
+    }
+
+    private long collectionCount() {
+        return gcCounter != null ? gcCounter.getCollectionCount() : -1;
+    }
+}
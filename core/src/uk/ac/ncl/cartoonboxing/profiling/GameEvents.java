@@ -0,0 +1,88 @@
+package uk.ac.ncl.cartoonboxing.profiling;
+
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+
+/**
+ * Hook for recording the frame lifecycle and gameplay events of a session, so that frame time spikes can be
+ * lined up with what happened in the game. Recorders are platform specific (desktop JVMs record into
+ * Java Flight Recorder, which Android does not have), so launchers pass one in through the game's options.
+ * Methods are called on the render thread, and an implementation only serves a single game.
+ * @author Piotr Grela
+ */
+public interface GameEvents {
+
+    /**
+     * Recorder that ignores every event, used unless a launcher passes one in
+     */
+    GameEvents NONE = new GameEvents() {
+        @Override
+        public void frameBegin() {
+        }
+
+        @Override
+        public void frameEnd(int entityCount) {
+        }
+
+        @Override
+        public void phaseBegin(FrameProfiler.Phase phase) {
+        }
+
+        @Override
+        public void phaseEnd(FrameProfiler.Phase phase) {
+        }
+
+        @Override
+        public void botSpawned(BaseCharacter.CharacterType characterType) {
+        }
+
+        @Override
+        public void playerHit(BaseCharacter.CharacterType characterType, int score) {
+        }
+
+        @Override
+        public void gameOver(int score, long roundDuration) {
+        }
+
+        @Override
+        public void paused() {
+        }
+
+        @Override
+        public void resumed() {
+        }
+    };
+
+    void frameBegin();
+
+    /**
+     * @param entityCount number of characters in the frame
+     */
+    void frameEnd(int entityCount);
+
+    void phaseBegin(FrameProfiler.Phase phase);
+
+    void phaseEnd(FrameProfiler.Phase phase);
+
+    void botSpawned(BaseCharacter.CharacterType characterType);
+
+    /**
+     * @param characterType type of the bot punched by the player
+     * @param score score after the hit
+     */
+    void playerHit(BaseCharacter.CharacterType characterType, int score);
+
+    /**
+     * @param roundDuration simulated duration of the round that has ended, in nanoseconds
+     */
+    void gameOver(int score, long roundDuration);
+
+    /**
+     * Gameplay stopped, by the player or by a game over
+     */
+    void paused();
+
+    /**
+     * Gameplay started again
+     */
+    void resumed();
+}
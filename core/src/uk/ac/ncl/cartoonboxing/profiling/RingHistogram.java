@@ -0,0 +1,75 @@
+package uk.ac.ncl.cartoonboxing.profiling;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring buffer of the latest samples, with percentiles over its contents.
+ * Once full, every new sample replaces the oldest one. Nothing is allocated after construction:
+ * percentiles sort a copy of the samples into a preallocated array, only when samples have changed.
+ * @author Piotr Grela
+ */
+public class RingHistogram {
+
+    private final long[] samples;
+    private final long[] sorted;
+    private int next;
+    private int size;
+    private boolean sortedValid;
+
+    public RingHistogram(int capacity) {
+        samples = new long[capacity];
+        sorted = new long[capacity];
+    }
+
+    public void add(long sample) {
+        samples[next] = sample;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+        sortedValid = false;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return samples.length;
+    }
+
+    /**
+     * @param index position of the sample, 0 being the oldest one kept
+     */
+    public long get(int index) {
+        int start = size < samples.length ? 0 : next;
+        return samples[(start + index) % samples.length];
+    }
+
+    /**
+     * @param percentile percentile from 0 to 100
+     * @return nearest-rank percentile of the kept samples, or 0 if there are none
+     */
+    public long getPercentile(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        if (!sortedValid) {
+            System.arraycopy(samples, 0, sorted, 0, size);
+            Arrays.sort(sorted, 0, size);
+            sortedValid = true;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return sorted[Math.max(0, Math.min(size - 1, rank - 1))];
+    }
+
+    public long getMax() {
+        return getPercentile(100);
+    }
+
+    public void clear() {
+        next = 0;
+        size = 0;
+        sortedValid = false;
+    }
+}
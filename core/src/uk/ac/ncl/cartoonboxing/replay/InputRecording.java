@@ -0,0 +1,138 @@
+package uk.ac.ncl.cartoonboxing.replay;
+
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Everything needed to reproduce a game session: RNG seed, level size, and the player's inputs, each stamped
+ * with the simulation step it has been applied at. Given those, the simulation replays the session exactly.
+ * <p>
+ * Binary format (big endian): magic "CBRP", format version byte, seed (long), level width and height (ints),
+ * total number of steps (varint), number of inputs (varint), then one varint per input holding the number of
+ * steps since the previous input shifted left by one, with the input type in the lowest bit.
+ * A flip every second costs about two bytes per second of play.
+ * @author Piotr Grela
+ */
+public class InputRecording {
+
+    public static final byte FLIP = 0;
+    public static final byte RESET_SCORE = 1;
+    private static final int MAGIC = 0x43425250;
+    /**
+     * Changed whenever gameplay changes so that older sessions would not replay the same (2: wave scripts)
+     */
+    private static final byte VERSION = 2;
+
+    @Getter
+    private final long seed;
+    @Getter
+    private final int levelWidth;
+    @Getter
+    private final int levelHeight;
+    /**
+     * Number of steps the session has run for
+     */
+    @Getter
+    @Setter
+    private long stepCount;
+    private final LongArray inputSteps;
+    private final ByteArray inputTypes;
+
+    public InputRecording(long seed, int levelWidth, int levelHeight) {
+        this.seed = seed;
+        this.levelWidth = levelWidth;
+        this.levelHeight = levelHeight;
+        inputSteps = new LongArray();
+        inputTypes = new ByteArray();
+    }
+
+    /**
+     * @param step step the input is applied at: a flip during that step, a score reset before it
+     * @param type {@link #FLIP} or {@link #RESET_SCORE}
+     */
+    public void record(long step, byte type) {
+        inputSteps.add(step);
+        inputTypes.add(type);
+        stepCount = Math.max(stepCount, step);
+    }
+
+    public int getInputCount() {
+        return inputSteps.size;
+    }
+
+    public long getInputStep(int index) {
+        return inputSteps.get(index);
+    }
+
+    public byte getInputType(int index) {
+        return inputTypes.get(index);
+    }
+
+    public void write(OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(outputStream);
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeLong(seed);
+        output.writeInt(levelWidth);
+        output.writeInt(levelHeight);
+        writeVarLong(output, stepCount);
+        writeVarLong(output, inputSteps.size);
+        long previousStep = 0;
+        for (int i = 0; i < inputSteps.size; i++) {
+            writeVarLong(output, (inputSteps.get(i) - previousStep) << 1 | inputTypes.get(i));
+            previousStep = inputSteps.get(i);
+        }
+        output.flush();
+    }
+
+    public static InputRecording read(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(inputStream);
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not an input recording");
+        }
+        byte version = input.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported input recording version " + version);
+        }
+        InputRecording recording = new InputRecording(input.readLong(), input.readInt(), input.readInt());
+        long stepCount = readVarLong(input);
+        long inputCount = readVarLong(input);
+        long step = 0;
+        for (long i = 0; i < inputCount; i++) {
+            long value = readVarLong(input);
+            step += value >>> 1;
+            recording.record(step, (byte) (value & 1));
+        }
+        recording.setStepCount(stepCount);
+        return recording;
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
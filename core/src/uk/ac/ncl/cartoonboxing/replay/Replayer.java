@@ -0,0 +1,62 @@
+package uk.ac.ncl.cartoonboxing.replay;
+
+import uk.ac.ncl.cartoonboxing.GameSimulation;
+import uk.ac.ncl.cartoonboxing.LevelDimensions;
+
+/**
+ * Runs a recorded session through a new simulation, without any graphics. Every recorded step is run with
+ * the same step time, seed and inputs as in the recorded session, so the replay ends in the same state.
+ * @author Piotr Grela
+ */
+public class Replayer {
+
+    private static final long STEP_NANOS = (long) (GameSimulation.STEP_TIME * 1000000000L);
+
+    private Replayer() {
+    }
+
+    /**
+     * @param realTime whether to pace steps to the speed of the recorded session, rather than run them
+     *                 as fast as possible
+     * @return simulation in the state the recorded session has ended in
+     */
+    public static GameSimulation replay(InputRecording recording, boolean realTime) {
+        LevelDimensions dimensions = new LevelDimensions(recording.getLevelWidth(), recording.getLevelHeight());
+        GameSimulation simulation = new GameSimulation(recording.getSeed(), dimensions);
+        int input = 0;
+        long start = System.nanoTime();
+        for (long step = 0; step < recording.getStepCount(); step++) {
+            boolean flip = false;
+            while (input < recording.getInputCount() && recording.getInputStep(input) == step) {
+                if (recording.getInputType(input) == InputRecording.RESET_SCORE) {
+                    simulation.resetScore();
+                } else {
+                    flip = true;
+                }
+                input++;
+            }
+            simulation.step(GameSimulation.STEP_TIME, flip);
+            if (realTime) {
+                sleepUntil(start + (step + 1) * STEP_NANOS);
+            }
+        }
+        // score reset after the last step, e.g. when the session was closed on the game over screen
+        while (input < recording.getInputCount()) {
+            if (recording.getInputType(input++) == InputRecording.RESET_SCORE) {
+                simulation.resetScore();
+            }
+        }
+        return simulation;
+    }
+
+    private static void sleepUntil(long time) {
+        long remaining = time - System.nanoTime();
+        if (remaining > 0) {
+            try {
+                Thread.sleep(remaining / 1000000L, (int) (remaining % 1000000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
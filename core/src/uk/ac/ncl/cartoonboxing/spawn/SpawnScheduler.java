@@ -0,0 +1,133 @@
+package uk.ac.ncl.cartoonboxing.spawn;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+/**
+ * Schedule of the spawns of a round over simulation time, following a {@link WaveScript}.
+ * Every wave and every bot of a wave is an entry of a binary min-heap keyed by the simulation time it is due at.
+ * When a wave is due, it schedules its burst of bots and the next wave, using the band of the score at that time.
+ * Due times are derived from the due times of earlier waves, never from the time of the step that handles them,
+ * so steps of any length (e.g. a burst of catch-up steps after a dropped frame) run exactly the same schedule,
+ * and several entries due within a single step are all handled in it. A step with nothing due only compares the
+ * time with the top of the heap. The heap only grows with the largest burst, so scheduling does not allocate.
+ * @author Piotr Grela
+ */
+public class SpawnScheduler {
+
+    /**
+     * Receiver of the bots that are due
+     */
+    public interface Spawner {
+        /**
+         * @param band band of the wave the bot belongs to
+         */
+        void spawn(WaveScript.Band band);
+    }
+
+    private static final int INITIAL_CAPACITY = 8;
+    /**
+     * Band of heap entries that are waves rather than bots
+     */
+    private static final int WAVE = -1;
+
+    @Getter
+    private final WaveScript script;
+    private long[] times;
+    /**
+     * Band index of every heap entry's bot, or {@link #WAVE}
+     */
+    private int[] bands;
+    private int size;
+
+    public SpawnScheduler(WaveScript script) {
+        this.script = script;
+        times = new long[INITIAL_CAPACITY];
+        bands = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Drop everything scheduled, and start a new round, whose first wave is due one interval after its start
+     * @param time simulation time the round starts at, in nanoseconds
+     * @param score score the round starts with
+     */
+    public void start(long time, int score) {
+        size = 0;
+        push(time + script.bandAt(score).getInterval(), WAVE);
+    }
+
+    /**
+     * Spawn every bot due by the given time, in the order they are due
+     * @param time current simulation time, in nanoseconds
+     * @param score current score, picking the band of the waves that are due
+     * @return number of spawned bots
+     */
+    public int update(long time, int score, Spawner spawner) {
+        int spawned = 0;
+        while (size > 0 && times[0] <= time) {
+            long due = times[0];
+            int band = bands[0];
+            pop();
+            if (band == WAVE) {
+                int index = script.bandIndexAt(score);
+                WaveScript.Band wave = script.getBand(index);
+                for (int i = 0; i < wave.getBurst(); i++) {
+                    push(due + i * wave.getSpacing(), index);
+                }
+                push(due + wave.getInterval(), WAVE);
+            } else {
+                spawner.spawn(script.getBand(band));
+                spawned++;
+            }
+        }
+        return spawned;
+    }
+
+    /**
+     * @return simulation time the next spawn or wave is due at, or Long.MAX_VALUE if nothing is scheduled
+     */
+    public long getNextTime() {
+        return size > 0 ? times[0] : Long.MAX_VALUE;
+    }
+
+    private void push(long time, int band) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            bands = Arrays.copyOf(bands, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (times[parent] <= time) {
+                break;
+            }
+            times[i] = times[parent];
+            bands[i] = bands[parent];
+            i = parent;
+        }
+        times[i] = time;
+        bands[i] = band;
+    }
+
+    private void pop() {
+        long time = times[--size];
+        int band = bands[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && times[child + 1] < times[child]) {
+                child++;
+            }
+            if (time <= times[child]) {
+                break;
+            }
+            times[i] = times[child];
+            bands[i] = bands[child];
+            i = child;
+        }
+        times[i] = time;
+        bands[i] = band;
+    }
+}
@@ -0,0 +1,180 @@
+package uk.ac.ncl.cartoonboxing.spawn;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.util.Random;
+
+import lombok.Getter;
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter.CharacterType;
+import uk.ac.ncl.cartoonboxing.character.CharacterSpawnTable;
+
+/**
+ * Data-defined script of the bots spawned during a round, as a list of score bands. While the score is within
+ * a band, a wave of bots is spawned every {@code interval} seconds: a burst of {@code burst} bots,
+ * {@code spacing} seconds apart, of types picked from the band's mix, at a speed multiplier ramping linearly
+ * from {@code speed[0]} at the band's score to {@code speed[1]} {@code ramp} score points later.
+ * Scripts are JSON:
+ * <pre>
+ * {"bands": [
+ *   {"score": 0, "interval": 1.0},
+ *   {"score": 40, "interval": 1.5, "burst": 2, "spacing": 0.4, "speed": [1.0, 1.2],
+ *    "mix": {"FAST_BOI": 2, "VERY_FAST_BOI": 1}}
+ * ]}
+ * </pre>
+ * Bands without a mix pick from the simulation's spawn table at the current score. The ramp defaults to the
+ * distance to the next band, or 100 points for the last band.
+ * @author Piotr Grela
+ */
+public class WaveScript {
+
+    private static final float DEFAULT_LAST_RAMP = 100;
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    private static final String DEFAULT_SCRIPT = "{\"bands\": ["
+        + "{\"score\": 0, \"interval\": 1.0},"
+        + "{\"score\": 15, \"interval\": 0.9, \"speed\": [1.0, 1.1]},"
+        + "{\"score\": 30, \"interval\": 1.5, \"burst\": 2, \"spacing\": 0.45, \"speed\": [1.1, 1.2]},"
+        + "{\"score\": 60, \"interval\": 1.4, \"burst\": 2, \"spacing\": 0.4, \"speed\": [1.2, 1.3],"
+        + " \"mix\": {\"SLOW_BOI\": 1, \"MEDIOCRE_BOI\": 2, \"FAST_BOI\": 2, \"VERY_FAST_BOI\": 1}},"
+        + "{\"score\": 100, \"interval\": 2.0, \"burst\": 3, \"spacing\": 0.45, \"speed\": [1.3, 1.5], \"ramp\": 200,"
+        + " \"mix\": {\"MEDIOCRE_BOI\": 1, \"FAST_BOI\": 2, \"VERY_FAST_BOI\": 2, \"THE_SPECIMEN\": 1}}"
+        + "]}";
+    private static final WaveScript DEFAULT = parse(DEFAULT_SCRIPT);
+
+    /**
+     * Bands sorted by score
+     */
+    private final Band[] bands;
+
+    /**
+     * Spawning rules while the score is at least {@link #score}
+     */
+    @Getter
+    public static class Band {
+        private final int score;
+        /**
+         * Time from a wave to the next one, in nanoseconds
+         */
+        private final long interval;
+        private final int burst;
+        /**
+         * Time between bots of a wave, in nanoseconds
+         */
+        private final long spacing;
+        private final float speedFrom;
+        private final float speedTo;
+        private final float ramp;
+        /**
+         * Types picked by the band, or null to use the simulation's spawn table
+         */
+        private final CharacterSpawnTable mix;
+
+        Band(int score, long interval, int burst, long spacing, float speedFrom, float speedTo, float ramp,
+             CharacterSpawnTable mix) {
+            if (interval <= 0 || burst < 1 || spacing < 0 || (burst - 1) * spacing >= interval) {
+                throw new IllegalArgumentException("Waves of band at score " + score + " have to end before the next wave");
+            }
+            this.score = score;
+            this.interval = interval;
+            this.burst = burst;
+            this.spacing = spacing;
+            this.speedFrom = speedFrom;
+            this.speedTo = speedTo;
+            this.ramp = ramp;
+            this.mix = mix;
+        }
+
+        /**
+         * @return multiplier of the speed of bots spawned at given score
+         */
+        public float speedAt(int score) {
+            float progress = ramp > 0 ? Math.min(1, (score - this.score) / ramp) : 1;
+            return speedFrom + (speedTo - speedFrom) * Math.max(0, progress);
+        }
+
+        /**
+         * @return type of a bot spawned at given score, from the band's mix or else from the given table
+         */
+        public CharacterType pickType(int score, CharacterSpawnTable spawnTable, Random random) {
+            return mix != null ? mix.pickForMaxSpeed(Double.MAX_VALUE, random) : spawnTable.pick(score, random);
+        }
+    }
+
+    private WaveScript(Band[] bands) {
+        this.bands = bands;
+    }
+
+    /**
+     * @return built-in script of the game
+     */
+    public static WaveScript getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param json script in the format described above
+     * @throws IllegalArgumentException if the script has no bands, bands are not sorted by score, or a wave would
+     * last longer than its interval
+     */
+    public static WaveScript parse(String json) {
+        JsonValue bandValues = new JsonReader().parse(json).get("bands");
+        if (bandValues == null || bandValues.size == 0) {
+            throw new IllegalArgumentException("Wave script has no bands");
+        }
+        Array<Band> bands = new Array<Band>(Band.class);
+        for (JsonValue value = bandValues.child; value != null; value = value.next) {
+            int score = value.getInt("score");
+            if (bands.size > 0 ? score <= bands.peek().score : score != 0) {
+                throw new IllegalArgumentException("Bands have to start at score 0 and be sorted by score");
+            }
+            float[] speed = value.has("speed") ? value.get("speed").asFloatArray() : new float[]{1, 1};
+            float ramp = value.has("ramp") ? value.getFloat("ramp")
+                : value.next != null ? value.next.getInt("score") - score : DEFAULT_LAST_RAMP;
+            bands.add(new Band(score, seconds(value.getFloat("interval")), value.getInt("burst", 1),
+                seconds(value.getFloat("spacing", 0)), speed[0], speed[speed.length - 1], ramp, parseMix(value.get("mix"))));
+        }
+        return new WaveScript(bands.toArray());
+    }
+
+    private static CharacterSpawnTable parseMix(JsonValue mix) {
+        if (mix == null) {
+            return null;
+        }
+        float[] weights = new float[CharacterType.values().length];
+        for (JsonValue weight = mix.child; weight != null; weight = weight.next) {
+            weights[CharacterType.valueOf(weight.name).getID()] = weight.asFloat();
+        }
+        return new CharacterSpawnTable(weights);
+    }
+
+    private static long seconds(float seconds) {
+        return (long) (seconds * NANOS_PER_SECOND);
+    }
+
+    /**
+     * @return band that applies at given score
+     */
+    public Band bandAt(int score) {
+        return bands[bandIndexAt(score)];
+    }
+
+    /**
+     * @return index of the band that applies at given score
+     */
+    public int bandIndexAt(int score) {
+        int band = 0;
+        while (band + 1 < bands.length && bands[band + 1].score <= score) {
+            band++;
+        }
+        return band;
+    }
+
+    public int getBandCount() {
+        return bands.length;
+    }
+
+    public Band getBand(int index) {
+        return bands[index];
+    }
+}
@@ -0,0 +1,259 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import javax.imageio.ImageIO;
+
+import uk.ac.ncl.cartoonboxing.TextureManifest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips of images through the encoder: colour is decoded by libGDX's ETC1 decoder, alpha by a minimal EAC
+ * decoder following the ETC2 specification.
+ */
+public class Etc2EncoderTest {
+
+    // not a multiple of 4, so that edge blocks are padded
+    private static final int WIDTH = 30;
+    private static final int HEIGHT = 18;
+    private static final String BACKGROUND = "backgrounds/background-mountains.jpg";
+    /**
+     * Modifier tables of EAC alpha blocks, as listed by the ETC2 specification
+     */
+    private static final int[][] ALPHA_MODIFIERS = {
+        {-3, -6, -9, -15, 2, 5, 8, 14},
+        {-3, -7, -10, -13, 2, 6, 9, 12},
+        {-2, -5, -8, -13, 1, 4, 7, 12},
+        {-2, -4, -6, -13, 1, 3, 5, 12},
+        {-3, -6, -8, -12, 2, 5, 7, 11},
+        {-3, -7, -9, -11, 2, 6, 8, 10},
+        {-4, -7, -8, -11, 3, 6, 7, 10},
+        {-3, -5, -8, -11, 2, 4, 7, 10},
+        {-2, -6, -8, -10, 1, 5, 7, 9},
+        {-2, -5, -8, -10, 1, 4, 7, 9},
+        {-2, -4, -8, -10, 1, 3, 7, 9},
+        {-2, -5, -7, -10, 1, 4, 6, 9},
+        {-3, -4, -7, -10, 2, 3, 6, 9},
+        {-1, -2, -3, -10, 0, 1, 2, 9},
+        {-4, -6, -8, -9, 3, 5, 7, 8},
+        {-3, -5, -7, -9, 2, 4, 6, 8}
+    };
+
+    @BeforeClass
+    public static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    @Test
+    public void testOpaqueRoundTrip() {
+        int[] argb = image(false);
+        byte[] encoded = new Etc2Encoder().encode(argb, WIDTH, HEIGHT, false);
+        assertEquals(Etc2Encoder.encodedSize(WIDTH, HEIGHT, false), encoded.length);
+
+        int[] decoded = decodeColor(encoded);
+        assertColorQuality(argb, decoded);
+    }
+
+    @Test
+    public void testTransparentRoundTrip() {
+        int[] argb = image(true);
+        byte[] encoded = new Etc2Encoder().encode(argb, WIDTH, HEIGHT, true);
+        assertEquals(Etc2Encoder.encodedSize(WIDTH, HEIGHT, true), encoded.length);
+
+        // every 16 byte block is an EAC alpha block followed by an ETC1 colour block
+        byte[] color = new byte[encoded.length / 2];
+        int[] alpha = new int[WIDTH * HEIGHT];
+        int blocksPerRow = (WIDTH + 3) / 4;
+        for (int block = 0; block < encoded.length / 16; block++) {
+            System.arraycopy(encoded, block * 16 + 8, color, block * 8, 8);
+            decodeAlphaBlock(readLong(encoded, block * 16), alpha, WIDTH, HEIGHT, block % blocksPerRow * 4,
+                block / blocksPerRow * 4);
+        }
+        int[] decoded = decodeColor(color);
+        for (int i = 0; i < argb.length; i++) {
+            decoded[i] = alpha[i] << 24 | decoded[i] & 0xFFFFFF;
+        }
+        assertTrue(psnr(argb, decoded, 24) > 45, "alpha PSNR " + psnr(argb, decoded, 24));
+        // colour of transparent pixels does not matter, so only compare it where the image is opaque
+        for (int i = 0; i < argb.length; i++) {
+            if (argb[i] >>> 24 != 0xFF) {
+                argb[i] = decoded[i];
+            }
+        }
+        assertColorQuality(argb, decoded);
+    }
+
+    @Test
+    public void testSingleAlphaIsExact() {
+        int[] argb = new int[16];
+        for (int i = 0; i < argb.length; i++) {
+            argb[i] = 0x7F336699;
+        }
+        int[] alpha = new int[16];
+        decodeAlphaBlock(readLong(new Etc2Encoder().encode(argb, 4, 4, true), 0), alpha, 4, 4, 0, 0);
+        for (int a : alpha) {
+            assertEquals(0x7F, a);
+        }
+    }
+
+    /**
+     * The full-size background is 12 MB uploaded as RGB888, and its committed compressed texture 2.7 MB with all
+     * of its mipmaps
+     */
+    @Test
+    public void testBackgroundCompressedSize() throws IOException {
+        File file = new File(BACKGROUND);
+        File compressedFile = new File(TextureManifest.compressedPath(BACKGROUND));
+        Assume.assumeTrue(file.exists() && compressedFile.exists());
+        BufferedImage image = ImageIO.read(file);
+        assertEquals(12, image.getWidth() * image.getHeight() * 3 / 1e6, 0.5);
+
+        // .zktx: gzip of the KTX file's length and the little endian KTX file
+        DataInputStream input = new DataInputStream(new GZIPInputStream(new FileInputStream(compressedFile)));
+        byte[] ktx;
+        try {
+            ktx = new byte[input.readInt()];
+            input.readFully(ktx);
+        } finally {
+            input.close();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(ktx).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(Etc2Encoder.GL_ETC1_RGB8, buffer.getInt(28));
+        assertEquals(image.getWidth(), buffer.getInt(36));
+        assertEquals(image.getHeight(), buffer.getInt(40));
+        int levels = buffer.getInt(56);
+        // down to 1x1
+        assertEquals(32 - Integer.numberOfLeadingZeros(Math.max(image.getWidth(), image.getHeight())), levels);
+        long compressed = 0;
+        int position = 64 + buffer.getInt(60);
+        for (int level = 0; level < levels; level++) {
+            int size = buffer.getInt(position);
+            compressed += size;
+            position += 4 + size;
+        }
+        assertEquals(2.7, compressed / 1e6, 0.05);
+    }
+
+    /**
+     * Check the colour of the decoded image against libGDX's own ETC1 encoder, which has to do no better
+     */
+    private static void assertColorQuality(int[] argb, int[] decoded) {
+        Pixmap pixmap = new Pixmap(WIDTH, HEIGHT, Pixmap.Format.RGB888);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                pixmap.drawPixel(x, y, argb[y * WIDTH + x] << 8 | 0xFF);
+            }
+        }
+        ETC1.ETC1Data reference = ETC1.encodeImage(pixmap);
+        pixmap.dispose();
+        byte[] blocks = new byte[reference.compressedData.capacity()];
+        reference.compressedData.position(0);
+        reference.compressedData.get(blocks);
+        reference.dispose();
+        int[] referenceDecoded = decodeColor(blocks);
+        double quality = psnr(argb, decoded, 16, 8, 0);
+        double referenceQuality = psnr(argb, referenceDecoded, 16, 8, 0);
+        assertTrue(quality > 30, "PSNR " + quality + " dB");
+        assertTrue(quality >= referenceQuality, "PSNR " + quality + " dB, libGDX " + referenceQuality + " dB");
+    }
+
+    /**
+     * @return smooth gradients with a noisy band and, if transparent, an alpha gradient with opaque and clear parts
+     */
+    private static int[] image(boolean transparent) {
+        Random random = new Random(7);
+        int[] argb = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int noise = y >= 8 && y < 12 ? random.nextInt(9) - 4 : 0;
+                int r = clamp(x * 255 / WIDTH + noise);
+                int g = clamp(y * 255 / HEIGHT + noise);
+                int b = clamp(128 + (x - y) * 2 + noise);
+                int a = transparent ? clamp((x - 8) * 255 / 14) : 0xFF;
+                argb[y * WIDTH + x] = a << 24 | r << 16 | g << 8 | b;
+            }
+        }
+        return argb;
+    }
+
+    /**
+     * @return opaque pixels of the ETC1 blocks, decoded by libGDX, cropped to the image
+     */
+    private static int[] decodeColor(byte[] blocks) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(blocks.length);
+        buffer.put(blocks).flip();
+        int paddedWidth = (WIDTH + 3) / 4 * 4;
+        int paddedHeight = (HEIGHT + 3) / 4 * 4;
+        Pixmap pixmap = ETC1.decodeImage(new ETC1.ETC1Data(paddedWidth, paddedHeight, buffer, 0),
+            Pixmap.Format.RGB888);
+        try {
+            int[] argb = new int[WIDTH * HEIGHT];
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    // RGBA8888 whatever the format of the pixmap
+                    argb[y * WIDTH + x] = 0xFF000000 | pixmap.getPixel(x, y) >>> 8;
+                }
+            }
+            return argb;
+        } finally {
+            pixmap.dispose();
+        }
+    }
+
+    /**
+     * Decode an EAC alpha block: base value, multiplier, modifier table and 3 bit indices of pixels column by column
+     */
+    private static void decodeAlphaBlock(long block, int[] alpha, int width, int height, int blockX, int blockY) {
+        int base = (int) (block >>> 56) & 0xFF;
+        int multiplier = (int) (block >>> 52) & 0xF;
+        int[] modifiers = ALPHA_MODIFIERS[(int) (block >>> 48) & 0xF];
+        for (int i = 0; i < 16; i++) {
+            int x = blockX + i / 4;
+            int y = blockY + i % 4;
+            if (x < width && y < height) {
+                alpha[y * width + x] = clamp(base + modifiers[(int) (block >>> (45 - 3 * i)) & 7] * multiplier);
+            }
+        }
+    }
+
+    /**
+     * @param shifts positions of the compared channels in the pixels
+     * @return peak signal to noise ratio of the channels, in dB
+     */
+    private static double psnr(int[] expected, int[] actual, int... shifts) {
+        double squares = 0;
+        for (int i = 0; i < expected.length; i++) {
+            for (int shift : shifts) {
+                int difference = (expected[i] >>> shift & 0xFF) - (actual[i] >>> shift & 0xFF);
+                squares += difference * difference;
+            }
+        }
+        double meanSquare = squares / (expected.length * shifts.length);
+        return meanSquare == 0 ? Double.POSITIVE_INFINITY : 10 * Math.log10(255 * 255 / meanSquare);
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        return ByteBuffer.wrap(bytes, offset, 8).getLong();
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
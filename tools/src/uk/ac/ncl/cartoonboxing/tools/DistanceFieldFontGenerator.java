@@ -0,0 +1,253 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Build-time generator of a signed distance field font atlas in BMFont text format, readable by libGDX BitmapFont.
+ * Glyphs are rasterized from a TrueType font with AWT at a multiple of the target size, and every atlas texel stores
+ * the distance to the nearest glyph edge in its alpha channel: 0.5 on the edge, growing towards 1 inside the glyph
+ * and falling towards 0 outside of it, reaching the limits at {@code spread} texels from the edge.
+ * Only needs a JDK, so it runs offline and headless.
+ * Usage: DistanceFieldFontGenerator &lt;font.ttf&gt; &lt;output directory&gt; &lt;output name&gt; [size] [spread]
+ * @author Piotr Grela
+ */
+public class DistanceFieldFontGenerator {
+
+    private static final int UPSCALE = 4;
+    private static final char FIRST_CHAR = 32;
+    private static final char LAST_CHAR = 126;
+    private static final int MAX_ATLAS_SIZE = 4096;
+
+    private final Font font;
+    private final int size;
+    private final int spread;
+
+    private static class Glyph {
+        char character;
+        BufferedImage image;
+        int x;
+        int y;
+        int xOffset;
+        int yOffset;
+        int xAdvance;
+    }
+
+    public DistanceFieldFontGenerator(Font font, int size, int spread) {
+        this.font = font.deriveFont((float) size * UPSCALE);
+        this.size = size;
+        this.spread = spread;
+    }
+
+    public static void main(String[] args) throws IOException, FontFormatException {
+        if (args.length < 3) {
+            System.err.println("Usage: DistanceFieldFontGenerator <font.ttf> <output directory> <output name> [size] [spread]");
+            System.exit(1);
+        }
+        int size = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        int spread = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+        Font font = Font.createFont(Font.TRUETYPE_FONT, new File(args[0]));
+        new DistanceFieldFontGenerator(font, size, spread).generate(new File(args[1]), args[2]);
+    }
+
+    public void generate(File outputDirectory, String name) throws IOException {
+        BufferedImage measure = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = measure.createGraphics();
+        graphics.setFont(font);
+        FontRenderContext context = graphics.getFontRenderContext();
+        int ascent = Math.round(graphics.getFontMetrics().getAscent() / (float) UPSCALE);
+        int lineHeight = Math.round(graphics.getFontMetrics().getHeight() / (float) UPSCALE);
+        graphics.dispose();
+
+        List<Glyph> glyphs = new ArrayList<Glyph>();
+        for (char c = FIRST_CHAR; c <= LAST_CHAR; c++) {
+            if (font.canDisplay(c)) {
+                glyphs.add(renderGlyph(c, context, ascent));
+            }
+        }
+        int[] atlasSize = pack(glyphs);
+        BufferedImage atlas = new BufferedImage(atlasSize[0], atlasSize[1], BufferedImage.TYPE_INT_ARGB);
+        for (Glyph glyph : glyphs) {
+            atlas.getRaster().setRect(glyph.x, glyph.y, glyph.image.getRaster());
+        }
+        outputDirectory.mkdirs();
+        ImageIO.write(atlas, "png", new File(outputDirectory, name + ".png"));
+        writeDescriptor(new File(outputDirectory, name + ".fnt"), name, glyphs, atlasSize, ascent, lineHeight);
+    }
+
+    private Glyph renderGlyph(char c, FontRenderContext context, int ascent) {
+        GlyphVector vector = font.createGlyphVector(context, String.valueOf(c));
+        Rectangle bounds = vector.getPixelBounds(context, 0, 0);
+        Glyph glyph = new Glyph();
+        glyph.character = c;
+        glyph.xAdvance = Math.round(vector.getGlyphMetrics(0).getAdvance() / UPSCALE);
+        if (bounds.isEmpty()) {
+            glyph.image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+            return glyph;
+        }
+        // align the rasterized glyph to the upscale grid, so that offsets stay whole atlas texels
+        int left = Math.floorDiv(bounds.x, UPSCALE) * UPSCALE;
+        int top = Math.floorDiv(bounds.y, UPSCALE) * UPSCALE;
+        int padding = spread * UPSCALE;
+        int width = ceilTo(bounds.x + bounds.width - left, UPSCALE) + 2 * padding;
+        int height = ceilTo(bounds.y + bounds.height - top, UPSCALE) + 2 * padding;
+        BufferedImage raster = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = raster.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        graphics.setColor(Color.WHITE);
+        graphics.drawGlyphVector(vector, padding - left, padding - top);
+        graphics.dispose();
+
+        glyph.image = distanceField(raster);
+        glyph.xOffset = left / UPSCALE - spread;
+        glyph.yOffset = ascent + top / UPSCALE - spread;
+        return glyph;
+    }
+
+    /**
+     * Downsample a high resolution glyph mask into a distance field, searching for the nearest texel of opposite
+     * state within the spread around the centre of every output texel
+     */
+    private BufferedImage distanceField(BufferedImage mask) {
+        int maskWidth = mask.getWidth();
+        int maskHeight = mask.getHeight();
+        boolean[] inside = new boolean[maskWidth * maskHeight];
+        for (int y = 0; y < maskHeight; y++) {
+            for (int x = 0; x < maskWidth; x++) {
+                inside[y * maskWidth + x] = (mask.getRaster().getSample(x, y, 0) & 0x80) != 0;
+            }
+        }
+        int width = maskWidth / UPSCALE;
+        int height = maskHeight / UPSCALE;
+        int radius = spread * UPSCALE;
+        BufferedImage field = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int centreX = x * UPSCALE + UPSCALE / 2;
+                int centreY = y * UPSCALE + UPSCALE / 2;
+                boolean centreInside = inside[centreY * maskWidth + centreX];
+                int nearestSquared = radius * radius;
+                for (int dy = -radius; dy <= radius; dy++) {
+                    int sampleY = centreY + dy;
+                    if (sampleY < 0 || sampleY >= maskHeight || dy * dy >= nearestSquared) {
+                        continue;
+                    }
+                    for (int dx = -radius; dx <= radius; dx++) {
+                        int sampleX = centreX + dx;
+                        if (sampleX < 0 || sampleX >= maskWidth) {
+                            continue;
+                        }
+                        int distanceSquared = dx * dx + dy * dy;
+                        if (distanceSquared < nearestSquared && inside[sampleY * maskWidth + sampleX] != centreInside) {
+                            nearestSquared = distanceSquared;
+                        }
+                    }
+                }
+                float distance = (float) Math.sqrt(nearestSquared) / radius;
+                float value = centreInside ? 0.5f + distance / 2 : 0.5f - distance / 2;
+                int alpha = Math.max(0, Math.min(255, Math.round(value * 255)));
+                field.setRGB(x, y, alpha << 24 | 0xFFFFFF);
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Shelf-pack glyphs, tallest first, into the smallest (and then squarest) power of two sized atlas they fit in
+     * @return atlas width and height
+     */
+    private static int[] pack(List<Glyph> glyphs) {
+        List<Glyph> sorted = new ArrayList<Glyph>(glyphs);
+        Collections.sort(sorted, new Comparator<Glyph>() {
+            @Override
+            public int compare(Glyph a, Glyph b) {
+                return b.image.getHeight() - a.image.getHeight();
+            }
+        });
+        int bestWidth = 0;
+        int bestHeight = 0;
+        for (int width = 64; width <= MAX_ATLAS_SIZE; width *= 2) {
+            int height = nextPowerOfTwo(shelfPack(sorted, width));
+            if (height <= MAX_ATLAS_SIZE && (bestWidth == 0 || width * height < bestWidth * bestHeight
+                || width * height == bestWidth * bestHeight && Math.abs(width - height) < Math.abs(bestWidth - bestHeight))) {
+                bestWidth = width;
+                bestHeight = height;
+            }
+        }
+        if (bestWidth == 0) {
+            throw new IllegalStateException("Glyphs do not fit in a " + MAX_ATLAS_SIZE + " atlas");
+        }
+        shelfPack(sorted, bestWidth);
+        return new int[]{bestWidth, bestHeight};
+    }
+
+    /**
+     * @return height used by glyphs placed on shelves of given width
+     */
+    private static int shelfPack(List<Glyph> sorted, int width) {
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        for (Glyph glyph : sorted) {
+            int glyphWidth = glyph.image.getWidth() + 1;
+            if (x + glyphWidth > width) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+            glyph.x = x;
+            glyph.y = y;
+            x += glyphWidth;
+            shelfHeight = Math.max(shelfHeight, glyph.image.getHeight() + 1);
+        }
+        return y + shelfHeight;
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        int power = 1;
+        while (power < value) {
+            power *= 2;
+        }
+        return power;
+    }
+
+    private void writeDescriptor(File file, String name, List<Glyph> glyphs, int[] atlasSize, int ascent, int lineHeight)
+        throws IOException {
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        try {
+            // glyph images and offsets include the spread, declared as padding like Hiero does
+            writer.printf("info face=\"%s\" size=%d bold=0 italic=0 charset=\"\" unicode=1 stretchH=100 smooth=1 aa=1 padding=%d,%d,%d,%d spacing=0,0%n",
+                font.getFontName(), size, spread, spread, spread, spread);
+            writer.printf("common lineHeight=%d base=%d scaleW=%d scaleH=%d pages=1 packed=0%n", lineHeight, ascent, atlasSize[0], atlasSize[1]);
+            writer.printf("page id=0 file=\"%s.png\"%n", name);
+            writer.printf("chars count=%d%n", glyphs.size());
+            for (Glyph glyph : glyphs) {
+                writer.printf("char id=%d x=%d y=%d width=%d height=%d xoffset=%d yoffset=%d xadvance=%d page=0 chnl=0%n",
+                    (int) glyph.character, glyph.x, glyph.y, glyph.image.getWidth(), glyph.image.getHeight(),
+                    glyph.xOffset, glyph.yOffset, glyph.xAdvance);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static int ceilTo(int value, int multiple) {
+        return (value + multiple - 1) / multiple * multiple;
+    }
+}
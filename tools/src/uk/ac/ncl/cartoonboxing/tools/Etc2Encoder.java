@@ -0,0 +1,357 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+/**
+ * Encoder of ARGB images into ETC2 compressed texture blocks, for GPUs to sample without decompressing.
+ * Colour is encoded in the individual and differential modes of ETC1, which ETC2 keeps unchanged, so opaque
+ * images can be stored as ETC1 (readable by every OpenGL ES 2 device) and still be valid ETC2.
+ * Images with transparency additionally get an EAC alpha block per 4x4 block (RGBA8 ETC2 EAC, OpenGL ES 3).
+ * Every block is searched exhaustively over both sub-block orientations, both colour modes and all modifier
+ * tables, which is slow but only runs at build time.
+ * @author Piotr Grela
+ */
+public final class Etc2Encoder {
+
+    /**
+     * GL_ETC1_RGB8_OES
+     */
+    public static final int GL_ETC1_RGB8 = 0x8D64;
+    /**
+     * GL_COMPRESSED_RGBA8_ETC2_EAC
+     */
+    public static final int GL_RGBA8_ETC2_EAC = 0x9278;
+
+    private static final int[][] COLOR_MODIFIERS = {
+        {2, 8}, {5, 17}, {9, 29}, {13, 42}, {18, 60}, {24, 80}, {33, 106}, {47, 183}
+    };
+    private static final int[][] ALPHA_MODIFIERS = {
+        {-3, -6, -9, -15, 2, 5, 8, 14},
+        {-3, -7, -10, -13, 2, 6, 9, 12},
+        {-2, -5, -8, -13, 1, 4, 7, 12},
+        {-2, -4, -6, -13, 1, 3, 5, 12},
+        {-3, -6, -8, -12, 2, 5, 7, 11},
+        {-3, -7, -9, -11, 2, 6, 8, 10},
+        {-4, -7, -8, -11, 3, 6, 7, 10},
+        {-3, -5, -8, -11, 2, 4, 7, 10},
+        {-2, -6, -8, -10, 1, 5, 7, 9},
+        {-2, -5, -8, -10, 1, 4, 7, 9},
+        {-2, -4, -8, -10, 1, 3, 7, 9},
+        {-2, -5, -7, -10, 1, 4, 6, 9},
+        {-3, -4, -7, -10, 2, 3, 6, 9},
+        {-1, -2, -3, -10, 0, 1, 2, 9},
+        {-4, -6, -8, -9, 3, 5, 7, 8},
+        {-3, -5, -7, -9, 2, 4, 6, 8}
+    };
+    /**
+     * Alpha table and index whose modifier is 0, for blocks of a single alpha value
+     */
+    private static final int EXACT_ALPHA_TABLE = 13;
+    private static final int EXACT_ALPHA_INDEX = 4;
+
+    // pixels of the block being encoded, row by row
+    private final int[] red = new int[16];
+    private final int[] green = new int[16];
+    private final int[] blue = new int[16];
+    private final int[] alpha = new int[16];
+    private final int[] subBlockIndices = new int[8];
+    private final int[] bestIndices = new int[8];
+    private final int[] blockIndices = new int[16];
+
+    /**
+     * @return whether any pixel of the image is not fully opaque
+     */
+    public static boolean hasAlpha(int[] argb) {
+        for (int pixel : argb) {
+            if (pixel >>> 24 != 0xFF) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return size in bytes of an image of given size in the compressed format
+     */
+    public static int encodedSize(int width, int height, boolean withAlpha) {
+        return ((width + 3) / 4) * ((height + 3) / 4) * (withAlpha ? 16 : 8);
+    }
+
+    /**
+     * Encode the image block by block, left to right and top to bottom. Partial blocks at the right and bottom
+     * edges are padded by repeating the edge pixels.
+     * @param argb pixels of the image, row by row, top row first
+     * @param withAlpha whether to encode RGBA8 ETC2 EAC blocks, rather than ETC1 ones
+     */
+    public byte[] encode(int[] argb, int width, int height, boolean withAlpha) {
+        byte[] output = new byte[encodedSize(width, height, withAlpha)];
+        int offset = 0;
+        for (int blockY = 0; blockY < height; blockY += 4) {
+            for (int blockX = 0; blockX < width; blockX += 4) {
+                readBlock(argb, width, height, blockX, blockY);
+                if (withAlpha) {
+                    writeLong(output, offset, encodeAlphaBlock());
+                    offset += 8;
+                }
+                writeLong(output, offset, encodeColorBlock(withAlpha));
+                offset += 8;
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Halve the image for the next mipmap level, averaging colour weighted by alpha, so that transparent pixels
+     * do not darken the edges of sprites
+     * @return pixels of the image at half the size, at least 1x1
+     */
+    public static int[] downsample(int[] argb, int width, int height) {
+        int halfWidth = Math.max(1, width / 2);
+        int halfHeight = Math.max(1, height / 2);
+        int[] half = new int[halfWidth * halfHeight];
+        for (int y = 0; y < halfHeight; y++) {
+            for (int x = 0; x < halfWidth; x++) {
+                long a = 0;
+                long r = 0;
+                long g = 0;
+                long b = 0;
+                for (int dy = 0; dy < 2; dy++) {
+                    for (int dx = 0; dx < 2; dx++) {
+                        int pixel = argb[Math.min(height - 1, 2 * y + dy) * width + Math.min(width - 1, 2 * x + dx)];
+                        int pixelAlpha = pixel >>> 24;
+                        a += pixelAlpha;
+                        r += (pixel >> 16 & 0xFF) * pixelAlpha;
+                        g += (pixel >> 8 & 0xFF) * pixelAlpha;
+                        b += (pixel & 0xFF) * pixelAlpha;
+                    }
+                }
+                half[y * halfWidth + x] = a == 0 ? 0 : (int) ((a + 2) / 4) << 24
+                    | (int) ((r + a / 2) / a) << 16 | (int) ((g + a / 2) / a) << 8 | (int) ((b + a / 2) / a);
+            }
+        }
+        return half;
+    }
+
+    private void readBlock(int[] argb, int width, int height, int blockX, int blockY) {
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                int pixel = argb[Math.min(height - 1, blockY + y) * width + Math.min(width - 1, blockX + x)];
+                int i = y * 4 + x;
+                alpha[i] = pixel >>> 24;
+                red[i] = pixel >> 16 & 0xFF;
+                green[i] = pixel >> 8 & 0xFF;
+                blue[i] = pixel & 0xFF;
+            }
+        }
+    }
+
+    //region Colour
+
+    /**
+     * @param weighted whether pixel errors are weighted by alpha, so that invisible pixels do not matter
+     */
+    private long encodeColorBlock(boolean weighted) {
+        long bestBlock = 0;
+        long bestError = Long.MAX_VALUE;
+        for (int flip = 0; flip < 2; flip++) {
+            float[] average0 = average(flip, 0, weighted);
+            float[] average1 = average(flip, 1, weighted);
+            for (int differential = 0; differential < 2; differential++) {
+                int[] base0 = new int[3];
+                int[] base1 = new int[3];
+                int[] color0 = new int[3];
+                int[] color1 = new int[3];
+                for (int c = 0; c < 3; c++) {
+                    if (differential == 1) {
+                        base0[c] = quantize(average0[c], 31);
+                        int delta = Math.max(-4, Math.min(3, quantize(average1[c], 31) - base0[c]));
+                        base1[c] = base0[c] + delta;
+                        color0[c] = expand5(base0[c]);
+                        color1[c] = expand5(base1[c]);
+                    } else {
+                        base0[c] = quantize(average0[c], 15);
+                        base1[c] = quantize(average1[c], 15);
+                        color0[c] = base0[c] * 17;
+                        color1[c] = base1[c] * 17;
+                    }
+                }
+                long block = (differential == 1 ? 1L : 0L) << 33 | (long) flip << 32;
+                for (int c = 0; c < 3; c++) {
+                    int shift = 56 - 8 * c;
+                    if (differential == 1) {
+                        block |= (long) base0[c] << (shift + 3) | (long) (base1[c] - base0[c] & 7) << shift;
+                    } else {
+                        block |= (long) base0[c] << (shift + 4) | (long) base1[c] << shift;
+                    }
+                }
+                long error = 0;
+                for (int subBlock = 0; subBlock < 2; subBlock++) {
+                    int[] color = subBlock == 0 ? color0 : color1;
+                    long subBlockError = Long.MAX_VALUE;
+                    int bestTable = 0;
+                    for (int table = 0; table < COLOR_MODIFIERS.length; table++) {
+                        long tableError = subBlockError(flip, subBlock, color, table, weighted);
+                        if (tableError < subBlockError) {
+                            subBlockError = tableError;
+                            bestTable = table;
+                            System.arraycopy(subBlockIndices, 0, bestIndices, 0, 8);
+                        }
+                    }
+                    error += subBlockError;
+                    block |= (long) bestTable << (subBlock == 0 ? 37 : 34);
+                    for (int j = 0; j < 8; j++) {
+                        blockIndices[subBlockPixel(flip, subBlock, j)] = bestIndices[j];
+                    }
+                }
+                if (error < bestError) {
+                    bestError = error;
+                    bestBlock = block | pixelIndexBits();
+                }
+            }
+        }
+        return bestBlock;
+    }
+
+    /**
+     * @return pixel indices of the block, most significant bits in bits 16-31 and least significant in 0-15,
+     * pixels ordered column by column
+     */
+    private long pixelIndexBits() {
+        long bits = 0;
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                int index = blockIndices[y * 4 + x];
+                int position = x * 4 + y;
+                bits |= (long) (index >> 1) << (16 + position) | (long) (index & 1) << position;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Choose the best modifier of the table for every pixel of the sub-block, into {@link #subBlockIndices}
+     * @return total error of the sub-block
+     */
+    private long subBlockError(int flip, int subBlock, int[] color, int table, boolean weighted) {
+        int small = COLOR_MODIFIERS[table][0];
+        int large = COLOR_MODIFIERS[table][1];
+        int[] modifiers = {small, large, -small, -large};
+        long error = 0;
+        for (int j = 0; j < 8; j++) {
+            int i = subBlockPixel(flip, subBlock, j);
+            int bestError = Integer.MAX_VALUE;
+            for (int index = 0; index < 4; index++) {
+                int modifier = modifiers[index];
+                int dr = clamp(color[0] + modifier) - red[i];
+                int dg = clamp(color[1] + modifier) - green[i];
+                int db = clamp(color[2] + modifier) - blue[i];
+                int pixelError = dr * dr + dg * dg + db * db;
+                if (pixelError < bestError) {
+                    bestError = pixelError;
+                    subBlockIndices[j] = index;
+                }
+            }
+            error += weighted ? (long) bestError * alpha[i] : bestError;
+        }
+        return error;
+    }
+
+    private float[] average(int flip, int subBlock, boolean weighted) {
+        float[] sums = new float[3];
+        float weights = 0;
+        for (int j = 0; j < 8; j++) {
+            int i = subBlockPixel(flip, subBlock, j);
+            float weight = weighted ? alpha[i] : 1;
+            sums[0] += red[i] * weight;
+            sums[1] += green[i] * weight;
+            sums[2] += blue[i] * weight;
+            weights += weight;
+        }
+        for (int c = 0; c < 3; c++) {
+            sums[c] = weights > 0 ? sums[c] / weights : 0;
+        }
+        return sums;
+    }
+
+    /**
+     * @param j pixel of the sub-block, from 0 to 7
+     * @return index of the pixel in the block, row by row: sub-blocks are 2x4 side by side, or 4x2 if flipped
+     */
+    private static int subBlockPixel(int flip, int subBlock, int j) {
+        if (flip == 0) {
+            return (j / 2) * 4 + subBlock * 2 + j % 2;
+        }
+        return (subBlock * 2 + j / 4) * 4 + j % 4;
+    }
+
+    private static int quantize(float value, int max) {
+        return Math.max(0, Math.min(max, Math.round(value * max / 255f)));
+    }
+
+    private static int expand5(int value) {
+        return value << 3 | value >> 2;
+    }
+
+    //endregion
+
+    //region Alpha
+
+    private long encodeAlphaBlock() {
+        int min = 255;
+        int max = 0;
+        for (int a : alpha) {
+            min = Math.min(min, a);
+            max = Math.max(max, a);
+        }
+        if (min == max) {
+            long block = (long) min << 56 | 1L << 52 | (long) EXACT_ALPHA_TABLE << 48;
+            for (int i = 0; i < 16; i++) {
+                block |= (long) EXACT_ALPHA_INDEX << (45 - 3 * i);
+            }
+            return block;
+        }
+        long bestBlock = 0;
+        long bestError = Long.MAX_VALUE;
+        int[] indices = new int[16];
+        for (int table = 0; table < ALPHA_MODIFIERS.length; table++) {
+            int[] modifiers = ALPHA_MODIFIERS[table];
+            for (int multiplier = 1; multiplier < 16; multiplier++) {
+                // centre the table's range on the block's range
+                int base = clamp(Math.round((min + max) / 2f - (modifiers[3] + modifiers[7]) * multiplier / 2f));
+                long error = 0;
+                for (int y = 0; y < 4; y++) {
+                    for (int x = 0; x < 4; x++) {
+                        int a = alpha[y * 4 + x];
+                        int pixelBest = Integer.MAX_VALUE;
+                        for (int index = 0; index < 8; index++) {
+                            int difference = clamp(base + modifiers[index] * multiplier) - a;
+                            if (difference * difference < pixelBest) {
+                                pixelBest = difference * difference;
+                                indices[x * 4 + y] = index;
+                            }
+                        }
+                        error += pixelBest;
+                    }
+                }
+                if (error < bestError) {
+                    bestError = error;
+                    bestBlock = (long) base << 56 | (long) multiplier << 52 | (long) table << 48;
+                    for (int i = 0; i < 16; i++) {
+                        bestBlock |= (long) indices[i] << (45 - 3 * i);
+                    }
+                }
+            }
+        }
+        return bestBlock;
+    }
+
+    //endregion
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+
+    private static void writeLong(byte[] output, int offset, long value) {
+        for (int i = 0; i < 8; i++) {
+            output[offset + i] = (byte) (value >>> (56 - 8 * i));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter;
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfiler;
+import uk.ac.ncl.cartoonboxing.profiling.GameEvents;
+
+/**
+ * Records the game's events into Java Flight Recorder, as events under the "Cartoon Boxing" category that
+ * JDK Mission Control shows next to GC pauses and other JVM events of the recording:
+ * frames and frame phases as timed events, spawns, hits and game overs as instant events,
+ * and pauses as timed events from the pause to the resume. There are thousands of phases a second,
+ * so by default only those of at least a millisecond are recorded.
+ * Event objects are only created while a recording has the event enabled, so outside of recordings every call
+ * is a check of a flag, and nothing is allocated.
+ * Record with e.g. java -XX:StartFlightRecording=filename=game.jfr,settings=profile, or start a recording from
+ * JMC; a single instance serves a single game. The jdk.jfr API needs JDK 11 or later.
+ * @author Piotr Grela
+ */
+public class JfrGameEvents implements GameEvents {
+
+    private static final String CATEGORY = "Cartoon Boxing";
+
+    @Name("uk.ac.ncl.cartoonboxing.Frame")
+    @Label("Frame")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class FrameEvent extends Event {
+        @Label("Entities")
+        @Description("Number of characters in the frame")
+        int entityCount;
+    }
+
+    @Name("uk.ac.ncl.cartoonboxing.FramePhase")
+    @Label("Frame Phase")
+    @Description("Phase of a frame or of a simulation step, as measured by the frame profiler")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("uk.ac.ncl.cartoonboxing.BotSpawn")
+    @Label("Bot Spawn")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class BotSpawnEvent extends Event {
+        @Label("Character Type")
+        String characterType;
+        @Label("Speed")
+        double speed;
+    }
+
+    @Name("uk.ac.ncl.cartoonboxing.Hit")
+    @Label("Hit")
+    @Description("Bot punched by the player")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class HitEvent extends Event {
+        @Label("Character Type")
+        String characterType;
+        @Label("Score")
+        int score;
+    }
+
+    @Name("uk.ac.ncl.cartoonboxing.GameOver")
+    @Label("Game Over")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class GameOverEvent extends Event {
+        @Label("Score")
+        int score;
+        @Label("Round Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long roundDuration;
+    }
+
+    @Name("uk.ac.ncl.cartoonboxing.Pause")
+    @Label("Pause")
+    @Description("Time gameplay was stopped, by the player or by a game over")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class PauseEvent extends Event {
+    }
+
+    private static final EventType FRAME = EventType.getEventType(FrameEvent.class);
+    private static final EventType PHASE = EventType.getEventType(PhaseEvent.class);
+    private static final EventType BOT_SPAWN = EventType.getEventType(BotSpawnEvent.class);
+    private static final EventType HIT = EventType.getEventType(HitEvent.class);
+    private static final EventType GAME_OVER = EventType.getEventType(GameOverEvent.class);
+    private static final EventType PAUSE = EventType.getEventType(PauseEvent.class);
+
+    private FrameEvent frame;
+    private final PhaseEvent[] phases = new PhaseEvent[FrameProfiler.Phase.values().length];
+    private PauseEvent pause;
+
+    @Override
+    public void frameBegin() {
+        if (FRAME.isEnabled()) {
+            frame = new FrameEvent();
+            frame.begin();
+        }
+    }
+
+    @Override
+    public void frameEnd(int entityCount) {
+        if (frame != null) {
+            frame.entityCount = entityCount;
+            frame.commit();
+            frame = null;
+        }
+    }
+
+    @Override
+    public void phaseBegin(FrameProfiler.Phase phase) {
+        if (PHASE.isEnabled()) {
+            PhaseEvent event = new PhaseEvent();
+            event.phase = phase.name();
+            event.begin();
+            phases[phase.ordinal()] = event;
+        }
+    }
+
+    @Override
+    public void phaseEnd(FrameProfiler.Phase phase) {
+        PhaseEvent event = phases[phase.ordinal()];
+        if (event != null) {
+            event.commit();
+            phases[phase.ordinal()] = null;
+        }
+    }
+
+    @Override
+    public void botSpawned(BaseCharacter.CharacterType characterType) {
+        if (BOT_SPAWN.isEnabled()) {
+            BotSpawnEvent event = new BotSpawnEvent();
+            event.characterType = characterType.name();
+            event.speed = characterType.getSPEED();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void playerHit(BaseCharacter.CharacterType characterType, int score) {
+        if (HIT.isEnabled()) {
+            HitEvent event = new HitEvent();
+            event.characterType = characterType.name();
+            event.score = score;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void gameOver(int score, long roundDuration) {
+        if (GAME_OVER.isEnabled()) {
+            GameOverEvent event = new GameOverEvent();
+            event.score = score;
+            event.roundDuration = roundDuration;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void paused() {
+        if (PAUSE.isEnabled()) {
+            pause = new PauseEvent();
+            pause.begin();
+        }
+    }
+
+    @Override
+    public void resumed() {
+        if (pause != null) {
+            pause.commit();
+            pause = null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+import uk.ac.ncl.cartoonboxing.GameSimulation;
+
+/**
+ * Automated player of a headless game. Asked once per simulation step whether to flip the player's character,
+ * like a real player tapping the screen. Every game gets its own instance, so a policy may keep state.
+ * @author Piotr Grela
+ */
+public interface PlayerPolicy {
+
+    /**
+     * @param simulation simulation about to run its next step
+     * @return whether to flip the player's character during the next step
+     */
+    boolean shouldFlip(GameSimulation simulation);
+
+    /**
+     * Creates a policy for every simulated game
+     */
+    interface Factory {
+        /**
+         * @param seed seed for any randomness of the policy, distinct for every game
+         */
+        PlayerPolicy create(long seed);
+    }
+}
@@ -0,0 +1,74 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+import java.util.Random;
+
+import uk.ac.ncl.cartoonboxing.GameSimulation;
+import uk.ac.ncl.cartoonboxing.character.BaseCharacter.Direction;
+import uk.ac.ncl.cartoonboxing.character.CharacterStore;
+
+/**
+ * Player that always wants to face the nearest bot, but only notices a change of the nearest bot after
+ * a reaction time drawn from a normal distribution. With zero mean and deviation it plays perfectly.
+ * @author Piotr Grela
+ */
+public class ReactionTimePolicy implements PlayerPolicy {
+
+    private final long meanReactionNanos;
+    private final long reactionDeviationNanos;
+    private final Random random;
+    private Direction wantedDirection;
+    private long reactionTime;
+
+    /**
+     * @param meanReactionMillis mean time between a change of the nearest bot and the flip, in milliseconds
+     * @param reactionDeviationMillis standard deviation of the reaction time, in milliseconds
+     */
+    public ReactionTimePolicy(double meanReactionMillis, double reactionDeviationMillis, Random random) {
+        meanReactionNanos = (long) (meanReactionMillis * 1000000);
+        reactionDeviationNanos = (long) (reactionDeviationMillis * 1000000);
+        this.random = random;
+    }
+
+    /**
+     * @return factory of policies with given reaction time, each with its own seeded Random
+     */
+    public static Factory factory(final double meanReactionMillis, final double reactionDeviationMillis) {
+        return new Factory() {
+            @Override
+            public PlayerPolicy create(long seed) {
+                return new ReactionTimePolicy(meanReactionMillis, reactionDeviationMillis, new Random(seed));
+            }
+        };
+    }
+
+    @Override
+    public boolean shouldFlip(GameSimulation simulation) {
+        Direction nearest = directionOfNearestBot(simulation);
+        if (nearest == null) {
+            wantedDirection = null;
+            return false;
+        }
+        if (nearest != wantedDirection) {
+            wantedDirection = nearest;
+            long reaction = (long) (meanReactionNanos + random.nextGaussian() * reactionDeviationNanos);
+            reactionTime = simulation.getSimulationTime() + Math.max(0, reaction);
+        }
+        return simulation.getSimulationTime() >= reactionTime
+            && simulation.getPlayerDirection() != wantedDirection;
+    }
+
+    private static Direction directionOfNearestBot(GameSimulation simulation) {
+        CharacterStore bots = simulation.getBots();
+        float playerX = simulation.getPlayerX();
+        float nearestDistance = Float.MAX_VALUE;
+        Direction nearest = null;
+        for (int slot = 0; slot < bots.getSize(); slot++) {
+            float distance = Math.abs(bots.getX(slot) - playerX);
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = bots.getX(slot) < playerX ? Direction.LEFT : Direction.RIGHT;
+            }
+        }
+        return nearest;
+    }
+}
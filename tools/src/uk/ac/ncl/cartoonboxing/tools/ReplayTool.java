@@ -0,0 +1,42 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import uk.ac.ncl.cartoonboxing.GameSimulation;
+import uk.ac.ncl.cartoonboxing.replay.InputRecording;
+import uk.ac.ncl.cartoonboxing.replay.Replayer;
+
+/**
+ * Command line replay of a recorded session, without graphics. Prints the state the session has ended in,
+ * and how fast it has been simulated, so that a recording doubles as a fixed workload for performance runs.
+ * Usage: ReplayTool &lt;recording&gt; [--realtime]
+ * @author Piotr Grela
+ */
+public class ReplayTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args[0].isEmpty()) {
+            System.err.println("Usage: ReplayTool <recording> [--realtime]");
+            System.exit(1);
+        }
+        boolean realTime = args.length > 1 && args[1].equals("--realtime");
+        InputRecording recording;
+        InputStream input = new BufferedInputStream(new FileInputStream(args[0]));
+        try {
+            recording = InputRecording.read(input);
+        } finally {
+            input.close();
+        }
+        long start = System.nanoTime();
+        GameSimulation simulation = Replayer.replay(recording, realTime);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Seed: %d, level: %dx%d%n", recording.getSeed(), recording.getLevelWidth(), recording.getLevelHeight());
+        System.out.printf("Steps: %d (%.1f s of play), inputs: %d%n", simulation.getStepCount(),
+            simulation.getStepCount() * GameSimulation.STEP_TIME, recording.getInputCount());
+        System.out.printf("Score: %d, high score: %d%n", simulation.getCurrentScore(), simulation.getHighScore());
+        System.out.printf("Replayed in %.3f s (%.0f steps/s)%n", seconds, simulation.getStepCount() / seconds);
+    }
+}
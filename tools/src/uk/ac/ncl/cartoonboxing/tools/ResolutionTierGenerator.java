@@ -0,0 +1,76 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.imageio.ImageIO;
+
+import uk.ac.ncl.cartoonboxing.AssetTier;
+import uk.ac.ncl.cartoonboxing.Level;
+
+/**
+ * Build-time generator of the lower {@link AssetTier}s from the full-size assets. For every tier, the sprite
+ * directories are packed into the tier's sprite atlas at the tier's scale, and the background of every level is
+ * scaled into the tier's directory in its original format. Tiers keep the layout of the full-size
+ * assets, so the game finds a tier's assets by prefixing their paths.
+ * Only needs a JDK, so it runs offline and headless.
+ * Usage: ResolutionTierGenerator &lt;assets directory&gt; &lt;max page size&gt;
+ * @author Piotr Grela
+ */
+public class ResolutionTierGenerator {
+
+    private static final String[] SPRITE_DIRECTORIES = {"characters"};
+    private static final String ATLAS_DIRECTORY = "atlas";
+    private static final String ATLAS_NAME = "sprites";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ResolutionTierGenerator <assets directory> <max page size>");
+            System.exit(1);
+        }
+        File assetsDirectory = new File(args[0]);
+        int maxPageSize = Integer.parseInt(args[1]);
+        for (AssetTier tier : AssetTier.values()) {
+            if (tier != AssetTier.FULL) {
+                generate(assetsDirectory, tier, maxPageSize);
+            }
+        }
+    }
+
+    private static void generate(File assetsDirectory, AssetTier tier, int maxPageSize) throws IOException {
+        List<File> spriteDirectories = new ArrayList<File>();
+        for (String directory : SPRITE_DIRECTORIES) {
+            spriteDirectories.add(new File(assetsDirectory, directory));
+        }
+        new TextureAtlasPacker(maxPageSize, tier.getScale())
+            .pack(spriteDirectories, new File(assetsDirectory, tier.path(ATLAS_DIRECTORY)), ATLAS_NAME);
+
+        Set<String> backgroundFiles = new TreeSet<String>();
+        for (Level.LevelType levelType : Level.LevelType.values()) {
+            backgroundFiles.add(levelType.getBackgroundFile());
+        }
+        for (String file : backgroundFiles) {
+            BufferedImage source = ImageIO.read(new File(assetsDirectory, file));
+            if (source == null) {
+                throw new IOException("Not an image: " + file);
+            }
+            String format = formatOf(file);
+            // JPEG has no alpha channel
+            int imageType = format.equals("jpg") ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+            File output = new File(assetsDirectory, tier.path(file));
+            output.getParentFile().mkdirs();
+            ImageIO.write(TextureAtlasPacker.scaleImage(source, tier.getScale(), imageType), format, output);
+        }
+        System.out.println("Generated " + tier + " tier at scale " + tier.getScale());
+    }
+
+    private static String formatOf(String file) {
+        String fileName = file.toLowerCase();
+        return fileName.endsWith(".jpg") || fileName.endsWith(".jpeg") ? "jpg" : "png";
+    }
+}
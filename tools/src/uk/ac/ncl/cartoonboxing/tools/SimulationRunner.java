@@ -0,0 +1,262 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import uk.ac.ncl.cartoonboxing.GameSimulation;
+import uk.ac.ncl.cartoonboxing.LevelDimensions;
+import uk.ac.ncl.cartoonboxing.character.HostileCharacter;
+import uk.ac.ncl.cartoonboxing.profiling.FrameProfiler;
+
+/**
+ * Runs many independent headless games in parallel on a fork-join pool, each played by a {@link PlayerPolicy}
+ * until its first game over or a time limit, and prints the distribution of scores and survival times together
+ * with the throughput. Every game owns its simulation, level dimensions, seeded Random and policy, and writes
+ * its results into its own slots of preallocated arrays, so games share no mutable state and throughput scales
+ * with the number of cores. Game seeds derive from the base seed and the game's index, so a run is reproducible
+ * regardless of the number of threads.
+ * <p>
+ * Usage: SimulationRunner [--games N] [--threads N] [--seed N] [--policy perfect|reaction]
+ * [--reaction-ms N] [--reaction-sd-ms N] [--max-seconds N] [--width N] [--height N] [--scaling] [--jfr]
+ * <p>
+ * With --scaling, the same games are run with 1, 2, 4... threads up to --threads, to check linear scaling.
+ * With --jfr, games report their spawns, hits, game overs and step phases to {@link JfrGameEvents},
+ * recorded when the JVM runs a flight recording.
+ * @author Piotr Grela
+ */
+public class SimulationRunner {
+
+    private static final int GAMES_PER_TASK = 8;
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    private final int gameCount;
+    private final long baseSeed;
+    private final float maxSeconds;
+    private final LevelDimensions dimensions;
+    private final PlayerPolicy.Factory policyFactory;
+    final int[] scores;
+    final float[] survivalSeconds;
+    final long[] steps;
+    /**
+     * Whether games report their events to Java Flight Recorder
+     */
+    boolean recordingEvents;
+
+    SimulationRunner(int gameCount, long baseSeed, float maxSeconds, LevelDimensions dimensions,
+                     PlayerPolicy.Factory policyFactory) {
+        this.gameCount = gameCount;
+        this.baseSeed = baseSeed;
+        this.maxSeconds = maxSeconds;
+        this.dimensions = dimensions;
+        this.policyFactory = policyFactory;
+        scores = new int[gameCount];
+        survivalSeconds = new float[gameCount];
+        steps = new long[gameCount];
+    }
+
+    /**
+     * Run all games on a pool of given parallelism
+     * @return wall clock time of the run, in nanoseconds
+     */
+    long run(int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            pool.invoke(new GameRange(0, gameCount));
+            return System.nanoTime() - start;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Play the game of given index to its first game over or the time limit, storing its results
+     */
+    void runGame(final int index) {
+        long seed = baseSeed + index * SEED_INCREMENT;
+        final GameSimulation simulation = new GameSimulation(seed, dimensions);
+        if (recordingEvents) {
+            JfrGameEvents events = new JfrGameEvents();
+            FrameProfiler profiler = new FrameProfiler(0);
+            profiler.setEvents(events);
+            simulation.setProfiler(profiler);
+            simulation.setEvents(events);
+        }
+        PlayerPolicy policy = policyFactory.create(~seed);
+        final boolean[] gameOver = new boolean[1];
+        simulation.setListener(new GameSimulation.Listener() {
+            @Override
+            public void onPlayerHit(HostileCharacter character) {
+            }
+
+            @Override
+            public void onGameOver(int score) {
+                gameOver[0] = true;
+                scores[index] = score;
+            }
+        });
+        long maxSteps = (long) Math.ceil(maxSeconds / GameSimulation.STEP_TIME);
+        while (!gameOver[0] && simulation.getStepCount() < maxSteps) {
+            simulation.step(GameSimulation.STEP_TIME, policy.shouldFlip(simulation));
+        }
+        if (!gameOver[0]) {
+            scores[index] = simulation.getCurrentScore();
+        }
+        steps[index] = simulation.getStepCount();
+        survivalSeconds[index] = simulation.getStepCount() * GameSimulation.STEP_TIME;
+    }
+
+    private class GameRange extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        GameRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    runGame(i);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GameRange(from, middle), new GameRange(middle, to));
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int games = 10000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        String policy = "reaction";
+        double reactionMillis = 250;
+        double reactionDeviationMillis = 50;
+        float maxSeconds = 300;
+        int width = 1920;
+        int height = 1080;
+        boolean scaling = false;
+        boolean recordingEvents = false;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--scaling")) {
+                scaling = true;
+                continue;
+            }
+            if (option.equals("--jfr")) {
+                recordingEvents = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                usage("Missing value of " + option);
+            }
+            String value = args[++i];
+            if (option.equals("--games")) {
+                games = Integer.parseInt(value);
+            } else if (option.equals("--threads")) {
+                threads = Integer.parseInt(value);
+            } else if (option.equals("--seed")) {
+                seed = Long.parseLong(value);
+            } else if (option.equals("--policy")) {
+                policy = value;
+            } else if (option.equals("--reaction-ms")) {
+                reactionMillis = Double.parseDouble(value);
+            } else if (option.equals("--reaction-sd-ms")) {
+                reactionDeviationMillis = Double.parseDouble(value);
+            } else if (option.equals("--max-seconds")) {
+                maxSeconds = Float.parseFloat(value);
+            } else if (option.equals("--width")) {
+                width = Integer.parseInt(value);
+            } else if (option.equals("--height")) {
+                height = Integer.parseInt(value);
+            } else {
+                usage("Unknown option " + option);
+            }
+        }
+        PlayerPolicy.Factory policyFactory;
+        if (policy.equals("perfect")) {
+            policyFactory = ReactionTimePolicy.factory(0, 0);
+        } else if (policy.equals("reaction")) {
+            policyFactory = ReactionTimePolicy.factory(reactionMillis, reactionDeviationMillis);
+        } else {
+            usage("Unknown policy " + policy);
+            return;
+        }
+        LevelDimensions dimensions = new LevelDimensions(width, height);
+        System.out.printf("Games: %d, seed: %d, policy: %s, level: %dx%d, limit: %.0f s%n",
+            games, seed, policy, width, height, maxSeconds);
+        if (scaling) {
+            for (int t = 1; t < threads; t *= 2) {
+                SimulationRunner runner = new SimulationRunner(games, seed, maxSeconds, dimensions, policyFactory);
+                runner.recordingEvents = recordingEvents;
+                runner.printThroughput(t, runner.run(t));
+            }
+        }
+        SimulationRunner runner = new SimulationRunner(games, seed, maxSeconds, dimensions, policyFactory);
+        runner.recordingEvents = recordingEvents;
+        long nanos = runner.run(threads);
+        runner.printThroughput(threads, nanos);
+        runner.printDistributions();
+    }
+
+    private void printThroughput(int threads, long nanos) {
+        double seconds = nanos / 1e9;
+        long totalSteps = 0;
+        for (long gameSteps : steps) {
+            totalSteps += gameSteps;
+        }
+        System.out.printf("Threads: %2d, %.3f s, %.1f games/s, %.0f steps/s%n",
+            threads, seconds, gameCount / seconds, totalSteps / seconds);
+    }
+
+    private void printDistributions() {
+        long[] sortedScores = new long[gameCount];
+        long[] sortedSurvival = new long[gameCount];
+        int timedOut = 0;
+        for (int i = 0; i < gameCount; i++) {
+            sortedScores[i] = scores[i];
+            sortedSurvival[i] = (long) (survivalSeconds[i] * 1000);
+            if (survivalSeconds[i] >= maxSeconds) {
+                timedOut++;
+            }
+        }
+        Arrays.sort(sortedScores);
+        Arrays.sort(sortedSurvival);
+        System.out.println("             p10      p50      p90      p99      max     mean");
+        printPercentiles("score", sortedScores, 1);
+        printPercentiles("survival s", sortedSurvival, 1000);
+        System.out.printf("Reached the time limit: %d (%.1f%%)%n", timedOut, 100.0 * timedOut / gameCount);
+    }
+
+    private static void printPercentiles(String name, long[] sorted, double unit) {
+        double sum = 0;
+        for (long value : sorted) {
+            sum += value;
+        }
+        System.out.printf("%-10s %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n", name,
+            percentile(sorted, 10) / unit, percentile(sorted, 50) / unit, percentile(sorted, 90) / unit,
+            percentile(sorted, 99) / unit, sorted[sorted.length - 1] / unit, sum / sorted.length / unit);
+    }
+
+    /**
+     * @return nearest-rank percentile of sorted values
+     */
+    static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: SimulationRunner [--games N] [--threads N] [--seed N] [--policy perfect|reaction]"
+            + " [--reaction-ms N] [--reaction-sd-ms N] [--max-seconds N] [--width N] [--height N] [--scaling] [--jfr]");
+        System.exit(1);
+    }
+}
@@ -0,0 +1,295 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Build-time packer of sprite images into a libGDX TextureAtlas (.atlas descriptor and PNG pages).
+ * Every image of the input directories becomes a region named after its directory and file name without
+ * extension, e.g. {@code characters/boxer-dude-blue}. Images with identical content are stored once and listed
+ * under every name, so duplicate source files cost no texture memory. Images can be scaled down by a given factor,
+ * e.g. for a lower resolution tier, keeping region names as they are. Images larger than a page are scaled down
+ * to fit, keeping their aspect ratio. Edge texels are repeated into the padding around every image, so that
+ * linear filtering never samples neighbouring images.
+ * Only needs a JDK, so it runs offline and headless.
+ * Usage: TextureAtlasPacker &lt;output directory&gt; &lt;atlas name&gt; &lt;max page size&gt; &lt;input directory&gt;...
+ * @author Piotr Grela
+ */
+public class TextureAtlasPacker {
+
+    private static final int PADDING = 2;
+    private static final String[] IMAGE_EXTENSIONS = {".png", ".jpg", ".jpeg"};
+
+    private final int maxPageSize;
+    private final float scale;
+
+    private static class Image {
+        final List<String> names = new ArrayList<String>();
+        BufferedImage image;
+        int page;
+        int x;
+        int y;
+    }
+
+    public TextureAtlasPacker(int maxPageSize) {
+        this(maxPageSize, 1f);
+    }
+
+    /**
+     * @param scale factor every image is scaled by before packing
+     */
+    public TextureAtlasPacker(int maxPageSize, float scale) {
+        this.maxPageSize = maxPageSize;
+        this.scale = scale;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: TextureAtlasPacker <output directory> <atlas name> <max page size> <input directory>...");
+            System.exit(1);
+        }
+        List<File> inputDirectories = new ArrayList<File>();
+        for (int i = 3; i < args.length; i++) {
+            inputDirectories.add(new File(args[i]));
+        }
+        new TextureAtlasPacker(Integer.parseInt(args[2])).pack(inputDirectories, new File(args[0]), args[1]);
+    }
+
+    public void pack(List<File> inputDirectories, File outputDirectory, String name) throws IOException {
+        List<Image> images = readImages(inputDirectories);
+        List<int[]> pageSizes = packPages(images);
+        outputDirectory.mkdirs();
+        for (int page = 0; page < pageSizes.size(); page++) {
+            BufferedImage pageImage = new BufferedImage(pageSizes.get(page)[0], pageSizes.get(page)[1], BufferedImage.TYPE_INT_ARGB);
+            for (Image image : images) {
+                if (image.page == page) {
+                    draw(pageImage, image);
+                }
+            }
+            ImageIO.write(pageImage, "png", new File(outputDirectory, pageFileName(name, page)));
+        }
+        writeDescriptor(new File(outputDirectory, name + ".atlas"), name, images, pageSizes);
+    }
+
+    /**
+     * Read all images of the input directories, in file name order, merging images with identical files
+     */
+    private List<Image> readImages(List<File> inputDirectories) throws IOException {
+        List<Image> images = new ArrayList<Image>();
+        Map<String, Image> imagesByDigest = new HashMap<String, Image>();
+        for (File directory : inputDirectories) {
+            File[] files = directory.listFiles();
+            if (files == null) {
+                throw new IOException("Not a directory: " + directory);
+            }
+            Arrays.sort(files);
+            for (File file : files) {
+                String extension = extensionOf(file);
+                if (extension == null) {
+                    continue;
+                }
+                String fileName = file.getName();
+                String regionName = directory.getName() + "/" + fileName.substring(0, fileName.length() - extension.length());
+                String digest = digestOf(file);
+                Image image = imagesByDigest.get(digest);
+                if (image == null) {
+                    image = new Image();
+                    BufferedImage source = ImageIO.read(file);
+                    image.image = fitToPage(scale == 1f ? source : scaleImage(source, scale, BufferedImage.TYPE_INT_ARGB));
+                    imagesByDigest.put(digest, image);
+                    images.add(image);
+                }
+                image.names.add(regionName);
+            }
+        }
+        return images;
+    }
+
+    private BufferedImage fitToPage(BufferedImage source) {
+        int maxSize = maxPageSize - 2 * PADDING;
+        if (source.getWidth() <= maxSize && source.getHeight() <= maxSize) {
+            return source;
+        }
+        return scaleImage(source, Math.min((float) maxSize / source.getWidth(), (float) maxSize / source.getHeight()),
+            BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Scale the image with bicubic interpolation, keeping its aspect ratio
+     * @param imageType type of the scaled image, e.g. without alpha for JPEG output
+     */
+    static BufferedImage scaleImage(BufferedImage source, float scale, int imageType) {
+        int width = Math.max(1, Math.round(source.getWidth() * scale));
+        int height = Math.max(1, Math.round(source.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(width, height, imageType);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+        return scaled;
+    }
+
+    /**
+     * Shelf-pack images, tallest first, opening a new page whenever the current one is full.
+     * Every page is then shrunk to the smallest power of two size holding its images.
+     * @return width and height of every page
+     */
+    private List<int[]> packPages(List<Image> images) {
+        List<Image> sorted = new ArrayList<Image>(images);
+        Collections.sort(sorted, new Comparator<Image>() {
+            @Override
+            public int compare(Image a, Image b) {
+                return b.image.getHeight() - a.image.getHeight();
+            }
+        });
+        List<int[]> pageSizes = new ArrayList<int[]>();
+        int page = 0;
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        int usedWidth = 0;
+        for (Image image : sorted) {
+            int width = image.image.getWidth() + 2 * PADDING;
+            int height = image.image.getHeight() + 2 * PADDING;
+            if (x + width > maxPageSize) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+            if (y + height > maxPageSize) {
+                pageSizes.add(new int[]{nextPowerOfTwo(usedWidth), nextPowerOfTwo(y)});
+                page++;
+                x = 0;
+                y = 0;
+                shelfHeight = 0;
+                usedWidth = 0;
+            }
+            image.page = page;
+            image.x = x + PADDING;
+            image.y = y + PADDING;
+            x += width;
+            shelfHeight = Math.max(shelfHeight, height);
+            usedWidth = Math.max(usedWidth, x);
+        }
+        pageSizes.add(new int[]{nextPowerOfTwo(usedWidth), nextPowerOfTwo(y + shelfHeight)});
+        return pageSizes;
+    }
+
+    /**
+     * Copy the image into the page, repeating its edge texels into the padding around it
+     */
+    private static void draw(BufferedImage page, Image image) {
+        BufferedImage source = image.image;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        for (int y = -PADDING; y < height + PADDING; y++) {
+            int sourceY = Math.max(0, Math.min(height - 1, y));
+            int pageY = image.y + y;
+            if (pageY < 0 || pageY >= page.getHeight()) {
+                continue;
+            }
+            for (int x = -PADDING; x < width + PADDING; x++) {
+                int pageX = image.x + x;
+                if (pageX >= 0 && pageX < page.getWidth()) {
+                    page.setRGB(pageX, pageY, source.getRGB(Math.max(0, Math.min(width - 1, x)), sourceY));
+                }
+            }
+        }
+    }
+
+    private static void writeDescriptor(File file, String name, List<Image> images, List<int[]> pageSizes) throws IOException {
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        try {
+            for (int page = 0; page < pageSizes.size(); page++) {
+                writer.println();
+                writer.println(pageFileName(name, page));
+                writer.printf("size: %d,%d%n", pageSizes.get(page)[0], pageSizes.get(page)[1]);
+                writer.println("format: RGBA8888");
+                writer.println("filter: Linear,Linear");
+                writer.println("repeat: none");
+                for (Image image : images) {
+                    if (image.page != page) {
+                        continue;
+                    }
+                    for (String regionName : image.names) {
+                        int width = image.image.getWidth();
+                        int height = image.image.getHeight();
+                        writer.println(regionName);
+                        writer.println("  rotate: false");
+                        writer.printf("  xy: %d, %d%n", image.x, image.y);
+                        writer.printf("  size: %d, %d%n", width, height);
+                        writer.printf("  orig: %d, %d%n", width, height);
+                        writer.println("  offset: 0, 0");
+                        writer.println("  index: -1");
+                    }
+                }
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static String pageFileName(String name, int page) {
+        return page == 0 ? name + ".png" : name + (page + 1) + ".png";
+    }
+
+    private static String extensionOf(File file) {
+        String fileName = file.getName().toLowerCase();
+        for (String extension : IMAGE_EXTENSIONS) {
+            if (fileName.endsWith(extension)) {
+                return file.getName().substring(fileName.length() - extension.length());
+            }
+        }
+        return null;
+    }
+
+    private static String digestOf(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        InputStream input = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            input.close();
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        int power = 1;
+        while (power < value) {
+            power *= 2;
+        }
+        return power;
+    }
+}
@@ -0,0 +1,215 @@
+package uk.ac.ncl.cartoonboxing.tools;
+
+import java.awt.image.BufferedImage;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import javax.imageio.ImageIO;
+
+import uk.ac.ncl.cartoonboxing.AssetTier;
+import uk.ac.ncl.cartoonboxing.Level;
+import uk.ac.ncl.cartoonboxing.TextureManifest;
+
+/**
+ * Build-time converter of the game's textures into GPU compressed textures with a full chain of mipmaps.
+ * The sprite atlas and the level backgrounds of every {@link AssetTier} are encoded by the {@link Etc2Encoder}:
+ * opaque images as ETC1, images with transparency as RGBA8 ETC2 EAC. Every texture is written as a
+ * gzip-compressed KTX file (.zktx, read by libGDX), atlases get a copy of their descriptor referring to the
+ * compressed pages, and a manifest lists every converted file with its format, for
+ * {@link TextureManifest} to load instead of the original where the GPU supports it.
+ * Outputs mirror the layout of the assets under the compressed directory.
+ * Only needs a JDK, so it runs offline and headless.
+ * Usage: TextureCompressor &lt;assets directory&gt;
+ * @author Piotr Grela
+ */
+public class TextureCompressor {
+
+    private static final String SPRITE_ATLAS_FILE = "atlas/sprites.atlas";
+    private static final byte[] KTX_IDENTIFIER = {
+        (byte) 0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte) 0xBB, '\r', '\n', 0x1A, '\n'
+    };
+    private static final int KTX_HEADER_SIZE = 64;
+    private static final int GL_RGB = 0x1907;
+    private static final int GL_RGBA = 0x1908;
+
+    private final File assetsDirectory;
+    private final Etc2Encoder encoder = new Etc2Encoder();
+    /**
+     * Format of every converted file, by its path in the assets
+     */
+    private final Map<String, String> formats = new LinkedHashMap<String, String>();
+
+    public TextureCompressor(File assetsDirectory) {
+        this.assetsDirectory = assetsDirectory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TextureCompressor <assets directory>");
+            System.exit(1);
+        }
+        TextureCompressor compressor = new TextureCompressor(new File(args[0]));
+        for (AssetTier tier : AssetTier.values()) {
+            compressor.compressAtlas(tier.path(SPRITE_ATLAS_FILE));
+            for (Level.LevelType levelType : Level.LevelType.values()) {
+                String file = tier.path(levelType.getBackgroundFile());
+                if (!compressor.formats.containsKey(file)) {
+                    compressor.compressImage(file);
+                }
+            }
+        }
+        compressor.writeManifest();
+    }
+
+    /**
+     * Compress every page of the atlas, and write a copy of its descriptor referring to the compressed pages.
+     * Filters are kept as they are: mipmaps are in the files, the game switches to mipmap filtering after loading.
+     */
+    private void compressAtlas(String file) throws IOException {
+        File atlas = new File(assetsDirectory, file);
+        String directory = parentOf(file);
+        boolean withAlpha = false;
+        List<String> lines = new ArrayList<String>();
+        for (String line : Files.readAllLines(atlas.toPath(), StandardCharsets.UTF_8)) {
+            // page lines are the only unindented lines with an image extension
+            if (!line.startsWith(" ") && line.toLowerCase().endsWith(".png")) {
+                String page = directory + line;
+                withAlpha |= compressImage(page).equals(TextureManifest.RGBA8_ETC2_EAC);
+                formats.remove(page);
+                line = compressedName(line);
+            }
+            lines.add(line);
+        }
+        File output = new File(assetsDirectory, TextureManifest.compressedPath(file));
+        output.getParentFile().mkdirs();
+        PrintWriter writer = new PrintWriter(output, "UTF-8");
+        try {
+            for (String line : lines) {
+                writer.println(line);
+            }
+        } finally {
+            writer.close();
+        }
+        formats.put(file, withAlpha ? TextureManifest.RGBA8_ETC2_EAC : TextureManifest.ETC1);
+    }
+
+    /**
+     * @return format the image has been compressed in
+     */
+    private String compressImage(String file) throws IOException {
+        BufferedImage image = ImageIO.read(new File(assetsDirectory, file));
+        if (image == null) {
+            throw new IOException("Not an image: " + file);
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+        boolean withAlpha = Etc2Encoder.hasAlpha(argb);
+
+        List<byte[]> levels = new ArrayList<byte[]>();
+        levels.add(encoder.encode(argb, width, height, withAlpha));
+        int levelWidth = width;
+        int levelHeight = height;
+        while (levelWidth > 1 || levelHeight > 1) {
+            argb = Etc2Encoder.downsample(argb, levelWidth, levelHeight);
+            levelWidth = Math.max(1, levelWidth / 2);
+            levelHeight = Math.max(1, levelHeight / 2);
+            levels.add(encoder.encode(argb, levelWidth, levelHeight, withAlpha));
+        }
+
+        File output = new File(assetsDirectory, TextureManifest.compressedPath(file));
+        output.getParentFile().mkdirs();
+        writeZktx(output, ktx(width, height, withAlpha, levels));
+        String format = withAlpha ? TextureManifest.RGBA8_ETC2_EAC : TextureManifest.ETC1;
+        formats.put(file, format);
+        System.out.println(file + ": " + format + ", " + levels.size() + " levels");
+        return format;
+    }
+
+    /**
+     * @return KTX 1.1 file of the compressed image, little endian
+     */
+    private static byte[] ktx(int width, int height, boolean withAlpha, List<byte[]> levels) {
+        int size = KTX_HEADER_SIZE;
+        for (byte[] level : levels) {
+            size += 4 + level.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(KTX_IDENTIFIER);
+        buffer.putInt(0x04030201);
+        // glType, glTypeSize and glFormat of compressed textures
+        buffer.putInt(0);
+        buffer.putInt(1);
+        buffer.putInt(0);
+        buffer.putInt(withAlpha ? Etc2Encoder.GL_RGBA8_ETC2_EAC : Etc2Encoder.GL_ETC1_RGB8);
+        buffer.putInt(withAlpha ? GL_RGBA : GL_RGB);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        // depth, array elements, faces, mipmap levels and key-value data
+        buffer.putInt(0);
+        buffer.putInt(0);
+        buffer.putInt(1);
+        buffer.putInt(levels.size());
+        buffer.putInt(0);
+        // compressed blocks are 8 or 16 bytes, so levels need no padding
+        for (byte[] level : levels) {
+            buffer.putInt(level.length);
+            buffer.put(level);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Write the KTX file in the .zktx format of libGDX: gzip of its length (big endian) followed by the file
+     */
+    private static void writeZktx(File file, byte[] ktx) throws IOException {
+        OutputStream output = new GZIPOutputStream(new FileOutputStream(file));
+        try {
+            DataOutputStream data = new DataOutputStream(output);
+            data.writeInt(ktx.length);
+            data.write(ktx);
+            data.flush();
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeManifest() throws IOException {
+        PrintWriter writer = new PrintWriter(new File(assetsDirectory, TextureManifest.FILE), "UTF-8");
+        try {
+            writer.println("{");
+            writer.println("  \"textures\": [");
+            int i = 0;
+            for (Map.Entry<String, String> entry : formats.entrySet()) {
+                writer.printf("    {\"file\": \"%s\", \"compressed\": \"%s\", \"format\": \"%s\"}%s%n", entry.getKey(),
+                    TextureManifest.compressedPath(entry.getKey()), entry.getValue(), ++i < formats.size() ? "," : "");
+            }
+            writer.println("  ]");
+            writer.println("}");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static String compressedName(String page) {
+        return page.substring(0, page.lastIndexOf('.')) + TextureManifest.COMPRESSED_EXTENSION;
+    }
+
+    private static String parentOf(String file) {
+        int slash = file.lastIndexOf('/');
+        return slash < 0 ? "" : file.substring(0, slash + 1);
+    }
+}